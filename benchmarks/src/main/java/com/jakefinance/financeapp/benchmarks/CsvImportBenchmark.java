@@ -0,0 +1,102 @@
+package com.jakefinance.financeapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.service.TransactionFingerprinter;
+import com.jakefinance.financeapp.service.TransactionImportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-row CPU cost of a CSV import, without the database: record splitting, header
+ * mapping, amount / type / date parsing and fingerprinting, i.e. everything the import
+ * does to a row before its chunk is written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CsvImportBenchmark {
+
+    private static final String[] TITLES = {"Coffee", "Groceries", "Rent", "Salary", "Fuel", "Netflix", "Dinner, downtown", "Gym"};
+    private static final String[] CATEGORIES = {"Food", "Housing", "Travel", "Transport", "Entertainment", "Health", "Shopping", "Utilities"};
+    private static final String[] ACCOUNTS = {"Checking", "Savings", "Credit Card"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private TransactionImportService importService;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        // Only parse() is exercised, so the database collaborators are left out
+        importService = new TransactionImportService(null, null, null, null, null,
+                new ObjectMapper(), null, 1000, new SimpleMeterRegistry());
+        csv = generate(rows, new Random(42));
+    }
+
+    @Benchmark
+    public long parse(Blackhole blackhole) throws IOException {
+        FingerprintingSink sink = new FingerprintingSink(blackhole);
+        importService.parse("transactions.csv", new ByteArrayInputStream(csv), sink);
+        return sink.accepted;
+    }
+
+    private static final class FingerprintingSink implements TransactionImportService.RowSink {
+        private final Blackhole blackhole;
+        private final TransactionFingerprinter fingerprinter = new TransactionFingerprinter();
+        long accepted;
+
+        FingerprintingSink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void add(long row, Transaction t) {
+            t.setFingerprint(fingerprinter.next(t));
+            blackhole.consume(t);
+            accepted++;
+        }
+
+        @Override
+        public void reject(long row, String message) {
+            blackhole.consume(message);
+        }
+    }
+
+    // A bank-export-like file: mixed "$1,234.56" and plain amounts, quoted fields, some notes
+    static byte[] generate(int rows, Random random) {
+        StringBuilder out = new StringBuilder(rows * 64);
+        out.append("Title,Amount,Type,Category,Account,Date,Notes\n");
+        for (int i = 0; i < rows; i++) {
+            String title = TITLES[random.nextInt(TITLES.length)];
+            long cents = 100 + random.nextInt(250_000);
+            boolean income = random.nextInt(10) == 0;
+            out.append(title.indexOf(',') >= 0 ? '"' + title + '"' : title).append(',');
+            if (random.nextBoolean()) {
+                out.append("\"$").append(String.format("%,d", cents / 100)).append('.')
+                        .append(String.format("%02d", cents % 100)).append('"');
+            } else {
+                out.append(cents / 100).append('.').append(String.format("%02d", cents % 100));
+            }
+            out.append(',').append(income ? "income" : "expense")
+                    .append(',').append(income ? "Income" : CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .append(',').append(ACCOUNTS[random.nextInt(ACCOUNTS.length)])
+                    .append(',').append(1 + random.nextInt(12)).append('/').append(1 + random.nextInt(28))
+                    .append('/').append(2020 + random.nextInt(5))
+                    .append(',').append(random.nextInt(4) == 0 ? "\"note " + i + ", see receipt\"" : "")
+                    .append('\n');
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
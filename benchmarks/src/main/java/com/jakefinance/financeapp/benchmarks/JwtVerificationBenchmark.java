@@ -0,0 +1,59 @@
+package com.jakefinance.financeapp.benchmarks;
+
+import com.jakefinance.financeapp.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the old path (build a parser and
+ * verify on every call), a shared parser, extractEmail, and the verified-token cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class JwtVerificationBenchmark {
+
+    // Matches JwtService's signing key
+    private final Key key = Keys.hmacShaKeyFor("super-secret-key-which-is-at-least-256-bits-long".getBytes());
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(10_000, new SimpleMeterRegistry());
+        token = jwtService.generateToken("bench@example.com");
+        jwtService.verify(token); // warm the cache for cachedVerify
+    }
+
+    @Benchmark
+    public String parserPerRequest() {
+        return Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String sharedParser() {
+        return jwtService.parse(token).subject();
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtService.extractEmail(token);
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return jwtService.verify(token).subject();
+    }
+}
@@ -0,0 +1,84 @@
+package com.jakefinance.financeapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.CategorySummary;
+import com.jakefinance.financeapp.model.Money;
+import com.jakefinance.financeapp.model.Product;
+import com.jakefinance.financeapp.service.ProductCatalogLoader;
+import com.jakefinance.financeapp.service.RecommendationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building one user's recommendation list once their spending and goals are known:
+ * the category-spending aggregation over the rollup summaries, and getProductsByQuery
+ * (weighting, catalog ranking and the default-product top-up).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class RecommendationProductsBenchmark {
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    @Param({"20", "500"})
+    public int categories;
+
+    private RecommendationService recommendationService;
+    private List<CategorySummary> summaries;
+    private Map<String, Money> categorySpending;
+    private String query;
+    private List<String> goals;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path catalogFile = Files.createTempFile("catalog", ".json");
+        catalogFile.toFile().deleteOnExit();
+        objectMapper.writeValue(catalogFile.toFile(), RecommendationRankingBenchmark.products(catalogSize, random));
+        ProductCatalogLoader catalogLoader = new ProductCatalogLoader(new DefaultResourceLoader(), objectMapper,
+                null, catalogFile.toUri().toString());
+
+        // Only the pure ranking path is exercised, so the data-access collaborators are left out
+        recommendationService = new RecommendationService(null, null, null, null, catalogLoader,
+                1, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        summaries = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            // Both the category's own name and a synonym of a catalog category
+            String name = i % 2 == 0 ? "Category" + (i % 20 + 1) : " Category" + (i % 20 + 1) + " " + i + " ";
+            summaries.add(new CategorySummary(name, 0L, (long) random.nextInt(1_000_000), 10L));
+        }
+        categorySpending = RecommendationService.categorySpending(summaries);
+        query = String.join(", ", RecommendationRankingBenchmark.word(random),
+                RecommendationRankingBenchmark.word(random), RecommendationRankingBenchmark.word(random));
+        goals = List.of("Save for travel to " + RecommendationRankingBenchmark.words(random, 2),
+                "Pay off debt", "Get fit and improve health");
+    }
+
+    @Benchmark
+    public Map<String, Money> categorySpending() {
+        return RecommendationService.categorySpending(summaries);
+    }
+
+    @Benchmark
+    public List<Product> getProductsByQuery() {
+        return recommendationService.getProductsByQuery(query, categorySpending, goals);
+    }
+}
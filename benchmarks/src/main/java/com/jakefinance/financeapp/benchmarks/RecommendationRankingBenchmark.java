@@ -0,0 +1,86 @@
+package com.jakefinance.financeapp.benchmarks;
+
+import com.jakefinance.financeapp.model.Product;
+import com.jakefinance.financeapp.service.ProductCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking a synthetic catalog against a typical recommendation query: top-K through the
+ * bounded heap versus ordering every matching product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class RecommendationRankingBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+    private static final int CATEGORIES = 20;
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    @Param({"60"})
+    public int k;
+
+    private ProductCatalog catalog;
+    private Map<String, Double> termWeights;
+    private Map<String, Double> categoryWeights;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = ProductCatalog.of(products(catalogSize, random));
+
+        termWeights = new HashMap<>();
+        for (int i = 0; i < 8; i++) {
+            termWeights.put(word(random), 1.0);
+        }
+        categoryWeights = Map.of("Category1", 1.2, "Category2", 0.5, "Category3", 0.3);
+    }
+
+    @Benchmark
+    public int[] topK() {
+        return catalog.rank(termWeights, categoryWeights, k);
+    }
+
+    @Benchmark
+    public int[] rankAll() {
+        return catalog.rank(termWeights, categoryWeights, catalog.size());
+    }
+
+    /** {@code size} products over Category1..20 plus the default category, with random word text. */
+    static Map<String, List<Product>> products(int size, Random random) {
+        Map<String, List<Product>> categories = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String category = i % (CATEGORIES + 1) == 0 ? ProductCatalog.DEFAULT_CATEGORY : "Category" + (i % (CATEGORIES + 1));
+            categories.computeIfAbsent(category, c -> new ArrayList<>())
+                    .add(new Product(i + 1, words(random, 3), words(random, 15), 9.99, "", ""));
+        }
+        return categories;
+    }
+
+    // Skewed towards low word numbers so common words have long posting lists
+    static String word(Random random) {
+        double u = random.nextDouble();
+        return "w" + (int) (VOCABULARY * u * u);
+    }
+
+    static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(word(random));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.jakefinance.financeapp.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files (-rf json) and exits non-zero if any benchmark got
+ * slower than the baseline by more than the threshold (default 10%) and by more than
+ * the two runs' combined error margins, so noise alone doesn't fail the gate.
+ *
+ * Usage: java -cp target/benchmarks.jar com.jakefinance.financeapp.benchmarks.RegressionGate
+ * baseline.json current.json [threshold]
+ */
+public final class RegressionGate {
+
+    private RegressionGate() {}
+
+    private record Score(String mode, double score, double error, String unit) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: RegressionGate baseline.json current.json [threshold]");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.mode().equals(now.mode()) || !before.unit().equals(now.unit())) {
+                System.out.printf("  new   %s: %.3f %s%n", entry.getKey(), now.score(), now.unit());
+                continue;
+            }
+            // Throughput is better when higher; every other mode reports time per operation
+            double worse = now.mode().equals("thrpt") ? before.score() - now.score() : now.score() - before.score();
+            double change = worse / before.score();
+            boolean regressed = change > threshold && worse > before.error() + now.error();
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%% slower)%n",
+                    regressed ? "  FAIL " : "  ok   ", entry.getKey(), before.score(), now.score(), now.unit(), change * 100);
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark method plus its @Param values
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(result.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,66 @@
+package com.jakefinance.financeapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.config.JacksonConfig;
+import com.jakefinance.financeapp.model.Money;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a large List&lt;Transaction&gt; response body with the application's own
+ * ObjectMapper (JacksonConfig), as the listing and export endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TransactionSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        JacksonConfig config = new JacksonConfig();
+        objectMapper = config.objectMapper(config.jackson2ObjectMapperBuilder());
+
+        Random random = new Random(42);
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction t = new Transaction("Transaction " + i,
+                    Money.ofMinor(random.nextInt(500_000)),
+                    random.nextInt(10) == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                    "Category" + random.nextInt(20),
+                    "Account" + random.nextInt(3),
+                    LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)),
+                    random.nextInt(4) == 0 ? "note " + i : null,
+                    null);
+            t.setChangeSeq((long) i);
+            transactions.add(t);
+        }
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+
+    @Benchmark
+    public byte[] writeAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+}
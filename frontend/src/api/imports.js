@@ -0,0 +1,18 @@
+import axios from '../axios';
+
+export const getImportJob = (id) =>
+  axios.get(`/api/imports/${id}`);
+
+const POLL_INTERVAL_MS = 1000;
+
+// Polls an import job until it finishes. onProgress receives each intermediate status.
+export const waitForImportJob = async (id, onProgress) => {
+  for (;;) {
+    const { data: job } = await getImportJob(id);
+    if (job.status === 'COMPLETED' || job.status === 'FAILED') {
+      return job;
+    }
+    if (onProgress) onProgress(job);
+    await new Promise((resolve) => setTimeout(resolve, POLL_INTERVAL_MS));
+  }
+};
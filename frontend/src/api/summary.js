@@ -0,0 +1,15 @@
+import axios from '../axios';
+
+// All of these accept optional { from, to, account } params (dates as YYYY-MM-DD)
+
+export const getTotals = (params = {}) =>
+  axios.get('/api/transactions/summary', { params });
+
+export const getCategorySummary = (params = {}) =>
+  axios.get('/api/transactions/summary/categories', { params });
+
+export const getMonthlySummary = (params = {}) =>
+  axios.get('/api/transactions/summary/monthly', { params });
+
+export const getAccountSummary = (params = {}) =>
+  axios.get('/api/transactions/summary/accounts', { params });
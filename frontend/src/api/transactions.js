@@ -1,9 +1,26 @@
 import axios from 'axios';
+import client from '../axios';
 
 const API_URL = 'https://finance-backend-l974.onrender.com/api/transactions';
 
 export const getAllTransactions = () => axios.get(API_URL);
 
+// params: { limit, cursor, account, category, type, from, to, minAmount, maxAmount }
+export const getTransactionPage = (params = {}) =>
+  client.get('/api/transactions/page', { params });
+
+// Walks every page for the given filters; use with a narrowing filter (e.g. account)
+export const getAllTransactionPages = async (params = {}) => {
+  const rows = [];
+  let cursor;
+  do {
+    const res = await getTransactionPage({ limit: 500, ...params, cursor });
+    rows.push(...res.data.items);
+    cursor = res.data.nextCursor;
+  } while (cursor);
+  return rows;
+};
+
 export const getTransactionsByAccount = (account) =>
   axios.get(`${API_URL}/account/${account}`);
 
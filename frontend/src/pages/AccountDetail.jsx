@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from "react";
 import axios from "axios";
 import { useParams } from "react-router-dom";
+import { getAllTransactionPages } from "../api/transactions";
 import { Tabs, Tab, Card } from "react-bootstrap";
 import { PieChart, Pie, Cell, Tooltip, ResponsiveContainer } from "recharts";
 import Table from "react-bootstrap/Table";
@@ -17,20 +18,12 @@ export default function AccountDetail() {
   const [allYears, setAllYears] = useState([]);
   const [sortColumn, setSortColumn] = useState(null);
   const [sortDirection, setSortDirection] = useState("asc");
-  const API_BASE_URL = process.env.REACT_APP_API_BASE_URL;
 
   useEffect(() => {
-    const token = localStorage.getItem("token");
-
-    axios
-      .get(`${API_BASE_URL}/api/transactions`, {
-        headers: {
-          Authorization: `Bearer ${token}`,
-        },
-      })
-      .then((res) => {
-        console.log("Fetched data:", res.data);
-        const filtered = res.data.filter(
+    // Only this account's rows are fetched; the server applies the filter
+    getAllTransactionPages({ account: decodedName })
+      .then((rows) => {
+        const filtered = rows.filter(
           (t) =>
             t.account &&
             t.account.toLowerCase() === decodedName.toLowerCase()
@@ -11,7 +11,7 @@ import {
   Cell,
   ReferenceLine,
 } from "recharts";
-import axios from "axios";
+import { getAccountSummary } from "../api/summary";
 
 export default function Accounts() {
   const [accountSummaries, setAccountSummaries] = useState([]);
@@ -22,19 +22,10 @@ export default function Accounts() {
     return str.charAt(0).toUpperCase() + str.slice(1).toLowerCase();
   };
 
-  const API_BASE_URL = process.env.REACT_APP_API_BASE_URL;
-
   useEffect(() => {
     const fetchData = async () => {
       try {
-        const token = localStorage.getItem("token");
-        const res = await axios.get(`${API_BASE_URL}/api/transactions`, {
-          headers: {
-            Authorization: `Bearer ${token}`,
-          },
-        });
-
-        const data = res.data;
+        const res = await getAccountSummary();
 
         const accounts = {
           Checking: { name: "Checking Account", balance: 0, expenses: 0, savings: 0 },
@@ -42,23 +33,18 @@ export default function Accounts() {
           Investing: { name: "Investing Account", balance: 0, expenses: 0, savings: 0 },
         };
 
-        data.forEach((t) => {
-          const account = capitalize(t.account?.trim() || "");
-          const amount = parseFloat(t.amount);
+        res.data.forEach((a) => {
+          const account = capitalize(a.account?.trim() || "");
           if (!accounts[account]) return;
 
-          if (t.type === "income") {
-            accounts[account].balance += amount;
-            accounts[account].savings += amount;
-          } else if (t.type === "expense") {
-            accounts[account].balance -= amount;
-            accounts[account].expenses += amount;
-          }
+          accounts[account].balance += a.balance;
+          accounts[account].savings += a.income;
+          accounts[account].expenses += a.expenses;
         });
 
         setAccountSummaries(Object.entries(accounts).map(([key, value]) => ({ ...value, key })));
       } catch (err) {
-        console.error("Failed to load transactions:", err);
+        console.error("Failed to load account summaries:", err);
       }
     };
 
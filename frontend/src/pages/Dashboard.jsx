@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from "react";
-import axios from "axios";
+import { getTotals, getCategorySummary, getMonthlySummary } from "../api/summary";
 import { Container, Row, Col, Card, Table } from "react-bootstrap";
 import { useNavigate } from "react-router-dom";
 import {
@@ -36,7 +36,7 @@ const CustomTooltip = ({ active, payload, label }) => {
 };
 
 export default function Dashboard() {
-  const [transactions, setTransactions] = useState([]);
+  const [currentMonthCategories, setCurrentMonthCategories] = useState([]);
   const [totalBalance, setTotalBalance] = useState(0);
   const [totalExpenses, setTotalExpenses] = useState(0);
   const [totalSavings, setTotalSavings] = useState(0);
@@ -45,79 +45,55 @@ export default function Dashboard() {
   const [monthlySavings, setMonthlySavings] = useState([]);
   const [budgetData, setBudgetData] = useState(null);
   const currentYear = new Date().getFullYear();
-  const API_BASE_URL = process.env.REACT_APP_API_BASE_URL;
   const navigate = useNavigate();
 
   useEffect(() => {
-    const fetchTransactions = async () => {
+    const fetchSummaries = async () => {
       try {
-        const token = localStorage.getItem("token");
+        const now = new Date();
+        const mm = String(now.getMonth() + 1).padStart(2, "0");
+        const lastDay = new Date(currentYear, now.getMonth() + 1, 0).getDate();
+        const monthStart = `${currentYear}-${mm}-01`;
+        const monthEnd = `${currentYear}-${mm}-${String(lastDay).padStart(2, "0")}`;
+
+        const [totalsRes, yearCategoriesRes, monthlyRes, monthCategoriesRes] = await Promise.all([
+          getTotals(),
+          getCategorySummary({ from: `${currentYear}-01-01`, to: `${currentYear}-12-31` }),
+          getMonthlySummary(),
+          getCategorySummary({ from: monthStart, to: monthEnd }),
+        ]);
+
+        const totals = totalsRes.data;
+        setTotalBalance(totals.balance);
+        setTotalExpenses(totals.expenses);
+        setTotalSavings(totals.income);
 
-        const res = await axios.get(`${API_BASE_URL}/api/transactions`, {
-          headers: {
-            Authorization: `Bearer ${token}`,
-          },
-        });
-
-        const data = res.data;
-        setTransactions(data);
-
-        let balance = 0;
-        let expenses = 0;
-        let income = 0;
+        setCategoryData(
+          yearCategoriesRes.data
+            .filter((c) => c.expenses > 0)
+            .map((c) => ({ name: c.category, value: parseFloat(c.expenses.toFixed(2)) }))
+        );
 
-        const categoryMap = {};
         const yearMap = {};
-        const monthlyMap = {};
-
-        const currentYear = new Date().getFullYear();
-
-        data.forEach((t) => {
-          const amount = parseFloat(t.amount);
-          const date = new Date(t.date);
-          const year = date.getFullYear();
-          const month = date.toLocaleString("default", { month: "short" });
-
-          if (t.type === "income") {
-            income += amount;
-            balance += amount;
-          } else if (t.type === "expense") {
-            expenses += amount;
-            balance -= amount;
-          }
-
-          if (year === currentYear) {
-            if (t.type === "expense") {
-              const cat = t.category || "Uncategorized";
-              categoryMap[cat] = (categoryMap[cat] || 0) + amount;
-            }
-
-            if (t.type === "income") {
-              monthlyMap[month] = (monthlyMap[month] || 0) + amount;
-            }
+        const monthlyData = [];
+        monthlyRes.data.forEach((m) => {
+          if (m.year == null) return;
+          yearMap[m.year] = (yearMap[m.year] || 0) + m.balance;
+          if (m.year === currentYear && m.income > 0) {
+            const month = new Date(m.year, m.month - 1, 1).toLocaleString("default", { month: "short" });
+            monthlyData.push({ month, savings: m.income });
           }
-
-          yearMap[year] = (yearMap[year] || 0) + (t.type === "income" ? amount : -amount);
         });
-
-        setTotalBalance(balance);
-        setTotalExpenses(expenses);
-        setTotalSavings(income);
-
-        setCategoryData(
-          Object.entries(categoryMap).map(([name, value]) => ({
-            name,
-            value: parseFloat(value.toFixed(2)),
-          }))
-        );
         setYearlyData(Object.entries(yearMap).map(([year, value]) => ({ name: year, value })));
-        setMonthlySavings(Object.entries(monthlyMap).map(([month, value]) => ({ month, savings: value })));
+        setMonthlySavings(monthlyData);
+
+        setCurrentMonthCategories(monthCategoriesRes.data);
       } catch (err) {
-        console.error("Failed to fetch transactions:", err);
+        console.error("Failed to fetch transaction summaries:", err);
       }
     };
 
-    fetchTransactions();
+    fetchSummaries();
   }, []);
 
   // Load and calculate current month budget
@@ -139,11 +115,11 @@ export default function Dashboard() {
         return;
       }
 
-      // Get all unique categories from transactions
+      // Get all unique expense categories for this month
       const categories = new Set();
-      transactions.forEach((t) => {
-        if (t.type === "expense" && t.category && t.category.trim()) {
-          categories.add(t.category.trim());
+      currentMonthCategories.forEach((c) => {
+        if (c.expenses > 0 && c.category && c.category.trim()) {
+          categories.add(c.category.trim());
         }
       });
 
@@ -162,15 +138,10 @@ export default function Dashboard() {
           expected = catData.value || 0;
         }
 
-        // Calculate actual spending for this category
-        let actual = 0;
-        transactions.forEach((t) => {
-          const date = new Date(t.date);
-          const transactionMonth = `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, "0")}`;
-          if (transactionMonth === currentMonth && t.type === "expense" && t.category?.trim() === cat) {
-            actual += parseFloat(t.amount || 0);
-          }
-        });
+        // Actual spending for this category (already limited to the current month)
+        const actual = currentMonthCategories
+          .filter((c) => c.category?.trim() === cat)
+          .reduce((sum, c) => sum + c.expenses, 0);
 
         return {
           name: cat,
@@ -185,15 +156,8 @@ export default function Dashboard() {
       const expectedSpent = categoryDetails.reduce((sum, cat) => sum + cat.expected, 0);
       const actualSpent = categoryDetails.reduce((sum, cat) => sum + cat.actual, 0);
 
-      // Calculate actual income for current month
-      let actualIncome = 0;
-      transactions.forEach((t) => {
-        const date = new Date(t.date);
-        const transactionMonth = `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, "0")}`;
-        if (transactionMonth === currentMonth && t.type === "income") {
-          actualIncome += parseFloat(t.amount || 0);
-        }
-      });
+      // Actual income for current month
+      const actualIncome = currentMonthCategories.reduce((sum, c) => sum + c.income, 0);
 
       const expectedSaved = expectedIncome - expectedSpent;
       const actualSaved = actualIncome - actualSpent;
@@ -211,7 +175,7 @@ export default function Dashboard() {
     };
 
     calculateCurrentMonthBudget();
-  }, [transactions]);
+  }, [currentMonthCategories]);
 
   const pieColors = ["#0d6efd", "#6610f2", "#198754", "#eab308", "#f97316", "#ec4899"];
   const barColors = ["#60a5fa", "#4ade80", "#f472b6"];
@@ -18,14 +18,14 @@ import {
   Tooltip,
   ResponsiveContainer,
 } from "recharts";
-import axios from "axios";
 import { getAllGoals, addGoal, completeGoal, deleteGoal } from "../api/goals";
+import { getCategorySummary } from "../api/summary";
 
 export default function Planning() {
   const [activeTab, setActiveTab] = useState("budget");
 
   // Budget Tab State
-  const [transactions, setTransactions] = useState([]);
+  const [monthlyCategoryTotals, setMonthlyCategoryTotals] = useState([]);
   const [budgets, setBudgets] = useState({}); // { "2024-01": { expectedIncome: 5000, categories: { "Food": { amount: 500, isPercentage: false, value: 500 }, ... } } }
   const [selectedMonth, setSelectedMonth] = useState("");
   const [categories, setCategories] = useState([]);
@@ -43,8 +43,6 @@ export default function Planning() {
   const [loadingGoal, setLoadingGoal] = useState(false);
   const [loadingGoals, setLoadingGoals] = useState(true);
 
-  const API_BASE_URL = process.env.REACT_APP_API_BASE_URL;
-
   // Load budgets from localStorage
   useEffect(() => {
     const savedBudgets = localStorage.getItem("budgets");
@@ -99,23 +97,18 @@ export default function Planning() {
     }
   }, [budgets]);
 
-  // Fetch transactions and extract categories
+  // Fetch per-month, per-category totals and extract categories
   useEffect(() => {
-    axios
-      .get(`${API_BASE_URL}/api/transactions`, {
-        headers: {
-          Authorization: `Bearer ${localStorage.getItem("token")}`,
-        },
-      })
+    getCategorySummary({ byMonth: true })
       .then((res) => {
         const data = res.data;
-        setTransactions(data);
+        setMonthlyCategoryTotals(data);
         
         // Extract unique categories from expenses
         const uniqueCategories = new Set();
-        data.forEach((t) => {
-          if (t.type === "expense" && t.category && t.category.trim()) {
-            uniqueCategories.add(t.category.trim());
+        data.forEach((c) => {
+          if (c.expenses > 0 && c.category && c.category.trim()) {
+            uniqueCategories.add(c.category.trim());
           }
         });
         setCategories(Array.from(uniqueCategories).sort());
@@ -125,31 +118,24 @@ export default function Planning() {
         const currentMonth = `${now.getFullYear()}-${String(now.getMonth() + 1).padStart(2, "0")}`;
         setSelectedMonth(currentMonth);
       })
-      .catch((err) => console.error("Failed to fetch transactions", err));
-  }, [API_BASE_URL]);
+      .catch((err) => console.error("Failed to fetch category totals", err));
+  }, []);
+
+  const rowsForMonth = (month) =>
+    monthlyCategoryTotals.filter(
+      (c) => c.year != null && `${c.year}-${String(c.month).padStart(2, "0")}` === month
+    );
 
   // Get actual spending by category for a given month
   const getActualSpending = (month, category) => {
-    return transactions
-      .filter((t) => {
-        if (t.type !== "expense") return false;
-        const date = new Date(t.date);
-        const transactionMonth = `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, "0")}`;
-        return transactionMonth === month && t.category?.trim() === category;
-      })
-      .reduce((sum, t) => sum + parseFloat(t.amount || 0), 0);
+    return rowsForMonth(month)
+      .filter((c) => c.category?.trim() === category)
+      .reduce((sum, c) => sum + c.expenses, 0);
   };
 
   // Get actual income for a given month
   const getActualIncome = (month) => {
-    return transactions
-      .filter((t) => {
-        if (t.type !== "income") return false;
-        const date = new Date(t.date);
-        const transactionMonth = `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, "0")}`;
-        return transactionMonth === month;
-      })
-      .reduce((sum, t) => sum + parseFloat(t.amount || 0), 0);
+    return rowsForMonth(month).reduce((sum, c) => sum + c.income, 0);
   };
 
   // Update expected income for a month
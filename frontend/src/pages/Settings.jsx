@@ -2,6 +2,30 @@
 import React, { useState, useRef } from "react";
 import axios from "axios";
 import { Card, Button, Container, Form, Table, Alert } from "react-bootstrap";
+import { waitForImportJob } from "../api/imports";
+import { getTotals } from "../api/summary";
+
+// Shapes a finished import job like the old synchronous import response
+const importJobToResponse = (job) => {
+  if (job.status === "FAILED") {
+    return {
+      error: job.error || "Import failed",
+      imported: job.persisted,
+      details: "Please check your file format and ensure it matches the required structure.",
+    };
+  }
+  const duplicates = job.skipped > 0
+    ? ` ${job.skipped} duplicate${job.skipped !== 1 ? 's' : ''} of earlier imports skipped.`
+    : "";
+  const rejected = job.rejected > 0
+    ? ` ${job.rejected} invalid row${job.rejected !== 1 ? 's were' : ' was'} skipped (first: row ${job.errors[0].row}: ${job.errors[0].message}).`
+    : "";
+  return {
+    message: "Imported successfully",
+    imported: job.persisted,
+    details: `${job.persisted} transaction${job.persisted !== 1 ? 's' : ''} imported.${duplicates}${rejected}`,
+  };
+};
 
 export default function Settings() {
   const fileInputRef = useRef();
@@ -16,15 +40,9 @@ export default function Settings() {
       setLoading(true);
       setExportMessage(null);
       
-      const response = await axios.get(`${API_BASE_URL}/api/transactions/export`, {
-        headers: {
-          Authorization: `Bearer ${localStorage.getItem("token")}`,
-        },
-      });
-      
-      const data = response.data;
+      const { data: totals } = await getTotals();
 
-      if (!data || data.length === 0) {
+      if (!totals || totals.count === 0) {
         setExportMessage({
           variant: "warning",
           title: "No Data to Export",
@@ -34,33 +52,16 @@ export default function Settings() {
         return;
       }
 
-      // Create CSV with proper formatting
-      const headers = ['Date', 'Amount', 'Title', 'Category', 'Type', 'Account', 'Notes'];
-      const csvRows = [
-        headers.join(","),
-        ...data.map(row => {
-          return headers.map(header => {
-            const fieldMap = {
-              'Date': row.date || '',
-              'Amount': row.amount || '',
-              'Title': row.title || '',
-              'Category': row.category || '',
-              'Type': row.type || '',
-              'Account': row.account || '',
-              'Notes': row.notes || ''
-            };
-            const value = fieldMap[header] || '';
-            // Escape quotes and wrap in quotes if contains comma or quote
-            if (value.toString().includes(',') || value.toString().includes('"') || value.toString().includes('\n')) {
-              return `"${value.toString().replace(/"/g, '""')}"`;
-            }
-            return value;
-          }).join(',');
-        })
-      ];
+      // The server streams the CSV in the same format the importer accepts
+      const response = await axios.get(`${API_BASE_URL}/api/transactions/export`, {
+        params: { format: "csv" },
+        responseType: "blob",
+        headers: {
+          Authorization: `Bearer ${localStorage.getItem("token")}`,
+        },
+      });
 
-      const csvData = new Blob([csvRows.join("\n")], { type: "text/csv;charset=utf-8;" });
-      const url = window.URL.createObjectURL(csvData);
+      const url = window.URL.createObjectURL(response.data);
       const a = document.createElement("a");
       a.href = url;
       a.download = `transactions_${new Date().toISOString().split('T')[0]}.csv`;
@@ -70,7 +71,7 @@ export default function Settings() {
       setExportMessage({
         variant: "success",
         title: "Export Successful",
-        message: `Successfully exported ${data.length} transaction(s) to CSV file.`,
+        message: `Successfully exported ${totals.count} transaction(s) to CSV file.`,
       });
       
       setTimeout(() => setExportMessage(null), 5000);
@@ -154,8 +155,18 @@ export default function Settings() {
         },
       });
 
-      // Handle both string and object responses from backend
-      const responseData = response.data;
+      // Imports run in the background; poll the job until it finishes
+      let responseData = response.data;
+      if (responseData?.jobId) {
+        const job = await waitForImportJob(responseData.jobId, (progress) => {
+          setImportMessage({
+            variant: "info",
+            title: "Importing...",
+            message: `${progress.parsed} row${progress.parsed !== 1 ? 's' : ''} processed so far.`,
+          });
+        });
+        responseData = importJobToResponse(job);
+      }
       
       // Debug logging
       console.log("Import response:", responseData);
@@ -261,6 +272,9 @@ export default function Settings() {
           if (errorData?.details && typeof errorData.details === 'string') {
             errorDetails = errorData.details;
           }
+        } else if (status === 503) {
+          errorMessage = errorData?.error || "Too many imports in progress.";
+          errorDetails = errorData?.details || "Please try again in a moment.";
         } else if (status === 413) {
           errorMessage = "File too large.";
           errorDetails = "The file you're trying to import is too large. Please try a smaller file.";
@@ -0,0 +1,219 @@
+package com.jakefinance.financeapp.loadtest;
+
+import com.jakefinance.financeapp.model.Money;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionType;
+import com.jakefinance.financeapp.repository.DimensionRepository;
+import com.jakefinance.financeapp.repository.MonthlyRollupRepository;
+import com.jakefinance.financeapp.repository.SyncRepository;
+import com.jakefinance.financeapp.repository.TransactionBatchRepository;
+import com.jakefinance.financeapp.service.TransactionFingerprinter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates N synthetic users, each with M transactions spread over their accounts and
+ * categories, plus goals, directly in Postgres. Transactions go through the application's
+ * own TransactionBatchRepository (one multi-row insert per chunk), so ids, change
+ * sequence, fingerprints and the monthly rollup come out as an import would leave them.
+ *
+ * Each user is written in one database transaction from a Random seeded with --seed and
+ * the user number, so the same options always produce the same data. Users that already
+ * exist are skipped, so an interrupted run can simply be repeated. The schema must exist
+ * already: start the backend against the database once first.
+ *
+ * Users are {prefix}{n}@example.com, n from 0, all with the password from --password.
+ */
+public final class DataGenerator {
+
+    private static final String INSERT_USER = "insert into users (email, password, first_name, last_name)"
+            + " values (?, ?, ?, ?) on conflict (email) do nothing returning id";
+
+    private static final String INSERT_GOAL = "insert into goals (text, steps, timeframe, completed, completed_at, created_at, user_id, change_seq)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Expense categories by typical frequency; more than these are named Category11, ...
+    private static final String[] CATEGORIES = {"Groceries", "Dining", "Transport", "Shopping", "Utilities",
+            "Entertainment", "Subscriptions", "Health", "Rent", "Travel"};
+    private static final String[] ACCOUNTS = {"Checking", "Credit Card", "Savings"};
+    private static final String[] MERCHANTS = {"Whole Foods", "Trader Joe's", "Starbucks", "Chipotle", "Uber", "Shell",
+            "Amazon", "Target", "Costco", "PG&E", "Comcast", "Netflix", "Spotify", "CVS Pharmacy", "AMC Theatres",
+            "Delta Air Lines", "Airbnb", "Home Depot", "Apple", "Walgreens"};
+    private static final String[] GOALS = {"Save for a trip to Japan", "Pay off credit card debt",
+            "Build a 6-month emergency fund", "Save for a house down payment", "Set up a home gym for fitness",
+            "Increase retirement savings", "Cut dining out spending in half", "Buy a new laptop for work"};
+    private static final String INCOME_CATEGORY = "Salary";
+
+    private final int transactionsPerUser;
+    private final int goalsPerUser;
+    private final int months;
+    private final int batchSize;
+    private final long seed;
+    private final String prefix;
+    private final String passwordHash;
+    private final List<String> accounts = new ArrayList<>();
+    private final List<String> categories = new ArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBatchRepository batchRepository;
+    private final DimensionRepository dimensionRepository;
+    private final SyncRepository syncRepository;
+
+    private final AtomicLong usersCreated = new AtomicLong();
+    private final AtomicLong usersSkipped = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+
+    private DataGenerator(Options options, HikariDataSource dataSource) {
+        this.transactionsPerUser = options.getInt("transactions", 1000);
+        this.goalsPerUser = options.getInt("goals", 3);
+        this.months = Math.max(1, options.getInt("months", 24));
+        this.batchSize = Math.max(1, options.getInt("batch-size", 1000));
+        this.seed = options.getLong("seed", 42);
+        this.prefix = options.get("prefix", "load");
+        this.passwordHash = new BCryptPasswordEncoder().encode(options.get("password", "loadtest"));
+        int accountCount = Math.max(1, options.getInt("accounts", 3));
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(i < ACCOUNTS.length ? ACCOUNTS[i] : "Account" + (i + 1));
+        }
+        int categoryCount = Math.max(1, options.getInt("categories", 10));
+        for (int i = 0; i < categoryCount; i++) {
+            categories.add(i < CATEGORIES.length ? CATEGORIES[i] : "Category" + (i + 1));
+        }
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.batchRepository = new TransactionBatchRepository(jdbcTemplate);
+        this.dimensionRepository = new DimensionRepository(jdbcTemplate);
+        this.syncRepository = new SyncRepository(jdbcTemplate);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args, "jdbc-url", "db-user", "db-password", "users", "transactions",
+                "accounts", "categories", "goals", "months", "seed", "prefix", "password", "threads", "batch-size");
+        int users = options.getInt("users", 100);
+        int threads = Math.max(1, options.getInt("threads", 4));
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl(options.get("jdbc-url", "DB_URL", "jdbc:postgresql://localhost:5432/postgres"));
+            dataSource.setUsername(options.get("db-user", "DB_USER", "postgres"));
+            dataSource.setPassword(options.get("db-password", "DB_PASSWORD", ""));
+            dataSource.setMaximumPoolSize(threads);
+            dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+
+            DataGenerator generator = new DataGenerator(options, dataSource);
+            long start = System.nanoTime();
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> results = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                results.add(pool.submit(() -> generator.generateUser(user)));
+            }
+            pool.shutdown();
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).get();
+                if ((i + 1) % 100 == 0) {
+                    System.out.printf("%d / %d users%n", i + 1, users);
+                }
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Created %d users (%d already existed), %d transactions in %.1fs (%.0f rows/s)%n",
+                    generator.usersCreated.get(), generator.usersSkipped.get(), generator.rowsInserted.get(),
+                    seconds, generator.rowsInserted.get() / seconds);
+        }
+    }
+
+    private void generateUser(int n) {
+        Random random = new Random(seed * 1_000_003L + n);
+        String email = prefix + n + "@example.com";
+        transactionTemplate.executeWithoutResult(status -> {
+            Long userId = jdbcTemplate.query(INSERT_USER, rs -> rs.next() ? rs.getLong(1) : null,
+                    email, passwordHash, "Load", "User " + n);
+            if (userId == null) {
+                usersSkipped.incrementAndGet();
+                return;
+            }
+            long seq = syncRepository.nextSeq(userId);
+            Map<String, Long> accountIds = dimensionRepository.idsFor(DimensionRepository.ACCOUNT, userId, accounts);
+            List<String> userCategories = new ArrayList<>(categories);
+            userCategories.add(INCOME_CATEGORY);
+            Map<String, Long> categoryIds = dimensionRepository.idsFor(DimensionRepository.CATEGORY, userId, userCategories);
+
+            TransactionFingerprinter fingerprinter = new TransactionFingerprinter();
+            LocalDate today = LocalDate.now();
+            List<Transaction> chunk = new ArrayList<>(batchSize);
+            for (int i = 0; i < transactionsPerUser; i++) {
+                Transaction t = transaction(random, today);
+                t.setFingerprint(fingerprinter.next(t));
+                t.setAccountId(accountIds.get(t.getAccount()));
+                t.setCategoryId(categoryIds.get(t.getCategory()));
+                chunk.add(t);
+                if (chunk.size() == batchSize) {
+                    rowsInserted.addAndGet(batchRepository.insertNew(userId, chunk, seq).size());
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                rowsInserted.addAndGet(batchRepository.insertNew(userId, chunk, seq).size());
+            }
+
+            List<Object[]> goals = new ArrayList<>(goalsPerUser);
+            for (int i = 0; i < goalsPerUser; i++) {
+                LocalDate created = today.minusDays(random.nextInt(months * 30));
+                boolean completed = random.nextInt(4) == 0;
+                goals.add(new Object[]{GOALS[random.nextInt(GOALS.length)], null, (1 + random.nextInt(24)) + " months",
+                        completed, completed ? Date.valueOf(today) : null, Date.valueOf(created), userId, seq});
+            }
+            jdbcTemplate.batchUpdate(INSERT_GOAL, goals);
+
+            namedJdbcTemplate.update(MonthlyRollupRepository.REBUILD, Map.of("userId", userId));
+            usersCreated.incrementAndGet();
+        });
+    }
+
+    // Roughly one paycheck per 15 rows; expenses skewed towards the first categories and
+    // accounts, with exponentially distributed amounts (mostly small, a long tail)
+    private Transaction transaction(Random random, LocalDate today) {
+        Transaction t = new Transaction();
+        t.setDate(today.minusDays(random.nextInt(months * 30)));
+        t.setAccount(accounts.get(skewed(random, accounts.size())));
+        if (random.nextInt(15) == 0) {
+            t.setType(TransactionType.INCOME);
+            t.setTitle("Payroll");
+            t.setCategory(INCOME_CATEGORY);
+            t.setAmount(Money.ofMinor(200_000 + random.nextInt(400_000)));
+        } else {
+            t.setType(TransactionType.EXPENSE);
+            t.setTitle(MERCHANTS[random.nextInt(MERCHANTS.length)]);
+            t.setCategory(categories.get(skewed(random, categories.size())));
+            t.setAmount(Money.ofMinor(100 + (long) (-Math.log(1 - random.nextDouble()) * 4_000)));
+        }
+        if (random.nextInt(5) == 0) {
+            t.setNotes("Receipt " + random.nextInt(100_000));
+        }
+        return t;
+    }
+
+    private static int skewed(Random random, int size) {
+        double u = random.nextDouble();
+        return (int) (size * u * u);
+    }
+}
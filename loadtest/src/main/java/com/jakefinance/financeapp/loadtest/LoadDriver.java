@@ -0,0 +1,301 @@
+package com.jakefinance.financeapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a realistic request mix against a running backend, as the users created by
+ * {@link DataGenerator}, and reports throughput and p50 / p90 / p99 latency per endpoint.
+ *
+ * Each of --concurrency workers repeatedly picks one of the generated users and one
+ * scenario by weight (--mix, default dashboard:60,add:15,recommendations:20,import:5):
+ * <ul>
+ * <li>dashboard: totals, category and monthly summaries, the first transaction page and goals</li>
+ * <li>add: one new transaction</li>
+ * <li>recommendations: scrolls 1-4 pages of recommendations</li>
+ * <li>import: uploads a CSV of --import-rows rows and polls the job until it finishes</li>
+ * </ul>
+ * Workers are seeded from --seed, so a run replays the same sequence of choices. Requests
+ * in the first --warmup seconds are sent but not counted.
+ */
+public final class LoadDriver {
+
+    private static final String[] SCENARIOS = {"dashboard", "add", "recommendations", "import"};
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+    private final String prefix;
+    private final String password;
+    private final int users;
+    private final int importRows;
+    private final int[] weights = new int[SCENARIOS.length];
+    private final int totalWeight;
+
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    /** Latencies (microseconds) and failures for one endpoint. */
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    private LoadDriver(Options options) {
+        String url = options.get("base-url", "http://localhost:8080");
+        this.baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.prefix = options.get("prefix", "load");
+        this.password = options.get("password", "loadtest");
+        this.users = Math.max(1, options.getInt("users", 100));
+        this.importRows = Math.max(1, options.getInt("import-rows", 200));
+
+        Map<String, Integer> mix = new TreeMap<>(Map.of("dashboard", 60, "add", 15, "recommendations", 20, "import", 5));
+        String spec = options.get("mix", null);
+        if (spec != null) {
+            mix.replaceAll((scenario, weight) -> 0);
+            for (String part : spec.split(",")) {
+                String[] kv = part.trim().split(":");
+                if (!mix.containsKey(kv[0]) || kv.length != 2) {
+                    throw new IllegalArgumentException("--mix takes scenario:weight pairs for " + String.join(", ", SCENARIOS));
+                }
+                mix.put(kv[0], Integer.parseInt(kv[1]));
+            }
+        }
+        int total = 0;
+        for (int i = 0; i < SCENARIOS.length; i++) {
+            weights[i] = mix.get(SCENARIOS[i]);
+            total += weights[i];
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        this.totalWeight = total;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args, "base-url", "prefix", "password", "users", "concurrency",
+                "duration", "warmup", "seed", "mix", "import-rows");
+        int concurrency = Math.max(1, options.getInt("concurrency", 16));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        long seed = options.getLong("seed", 42);
+
+        LoadDriver driver = new LoadDriver(options);
+        System.out.printf("%d workers against %s as %d users, %ds warmup + %ds measured%n",
+                concurrency, driver.baseUrl, driver.users, warmup.toSeconds(), duration.toSeconds());
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            Random random = new Random(seed * 1_000_003L + w);
+            pool.submit(() -> driver.work(random));
+        }
+        Thread.sleep(warmup.toMillis());
+        driver.recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        driver.recording = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        driver.running = false;
+        pool.shutdown();
+        pool.awaitTermination(60, TimeUnit.SECONDS);
+
+        driver.report(seconds);
+    }
+
+    private void work(Random random) {
+        while (running) {
+            String email = prefix + random.nextInt(users) + "@example.com";
+            try {
+                String token = tokens.computeIfAbsent(email, this::login);
+                switch (pick(random)) {
+                    case "dashboard" -> dashboard(token);
+                    case "add" -> add(token, random);
+                    case "recommendations" -> recommendations(token, random);
+                    default -> importCsv(token, random);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Counted against the endpoint by send(); keep going with the next iteration
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private String pick(Random random) {
+        int r = random.nextInt(totalWeight);
+        for (int i = 0; i < SCENARIOS.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return SCENARIOS[i];
+            }
+        }
+        return SCENARIOS[0];
+    }
+
+    private String login(String email) {
+        try {
+            String body = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+            HttpResponse<String> response = send("POST /api/auth/login", HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)), null);
+            return objectMapper.readTree(response.body()).path("token").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Login failed for " + email + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+    }
+
+    // What the dashboard page loads, plus the first page of the transaction list
+    private void dashboard(String token) throws IOException, InterruptedException {
+        get("GET /api/transactions/summary", "/api/transactions/summary", token);
+        get("GET /api/transactions/summary/categories", "/api/transactions/summary/categories", token);
+        get("GET /api/transactions/summary/monthly", "/api/transactions/summary/monthly", token);
+        get("GET /api/transactions/page", "/api/transactions/page?page=0&size=20", token);
+        get("GET /api/goals", "/api/goals", token);
+    }
+
+    private void add(String token, Random random) throws IOException, InterruptedException {
+        Map<String, Object> transaction = Map.of(
+                "title", "Load test " + random.nextInt(1_000_000),
+                "amount", (100 + random.nextInt(20_000)) / 100.0,
+                "type", "expense",
+                "category", "Groceries",
+                "account", "Checking",
+                "date", LocalDate.now().minusDays(random.nextInt(30)).toString());
+        send("POST /api/transactions", HttpRequest.newBuilder(uri("/api/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(transaction))), token);
+    }
+
+    // Infinite scroll: the first page, then a few more while the user keeps scrolling
+    private void recommendations(String token, Random random) throws IOException, InterruptedException {
+        int pages = 1 + random.nextInt(4);
+        for (int page = 0; page < pages; page++) {
+            get("GET /api/recommendations", "/api/recommendations?page=" + page + "&size=12", token);
+        }
+    }
+
+    private void importCsv(String token, Random random) throws IOException, InterruptedException {
+        StringBuilder csv = new StringBuilder("title,amount,type,category,account,date,notes\n");
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < importRows; i++) {
+            LocalDate date = today.minusDays(random.nextInt(365));
+            csv.append("Import ").append(random.nextInt(1_000_000)).append(',')
+                    .append((100 + random.nextInt(50_000)) / 100.0).append(",expense,Shopping,Credit Card,")
+                    .append(date.getMonthValue()).append('/').append(date.getDayOfMonth()).append('/').append(date.getYear())
+                    .append(",\n");
+        }
+        String boundary = "----loadtest" + random.nextLong();
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"loadtest.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + csv + "\r\n--" + boundary + "--\r\n";
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = send("POST /api/transactions/import", HttpRequest.newBuilder(uri("/api/transactions/import"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)), token);
+        String jobId = objectMapper.readTree(response.body()).path("jobId").asText();
+
+        // Poll like the frontend does until the job finishes, then record the whole import
+        while (running) {
+            Thread.sleep(250);
+            JsonNode job = objectMapper.readTree(get("GET /api/imports/{id}", "/api/imports/" + jobId, token).body());
+            String status = job.path("status").asText();
+            if (status.equals("COMPLETED") || status.equals("FAILED")) {
+                record("import (upload to completion)", System.nanoTime() - start, status.equals("FAILED"));
+                return;
+            }
+        }
+    }
+
+    private HttpResponse<String> get(String endpoint, String path, String token) throws IOException, InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(uri(path)).GET(), token);
+    }
+
+    /** Sends the request, records its latency under {@code endpoint}, and throws on a non-2xx status. */
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request, String token)
+            throws IOException, InterruptedException {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        request.timeout(Duration.ofSeconds(60));
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            record(endpoint, System.nanoTime() - start, true);
+            throw e;
+        }
+        boolean failed = response.statusCode() / 100 != 2;
+        record(endpoint, System.nanoTime() - start, failed);
+        if (failed) {
+            throw new IOException(endpoint + " returned " + response.statusCode());
+        }
+        return response;
+    }
+
+    private void record(String endpoint, long nanos, boolean failed) {
+        if (!recording) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        stats.latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (failed) {
+            stats.errors.increment();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%n%-40s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long requests = 0;
+        List<String> names = new ArrayList<>(new TreeMap<>(endpoints).keySet());
+        for (String name : names) {
+            Endpoint stats = endpoints.get(name);
+            Histogram h = stats.latency;
+            if (!name.startsWith("import (")) {
+                requests += h.getTotalCount();
+            }
+            System.out.printf("%-40s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, h.getTotalCount(), stats.errors.sum(),
+                    h.getTotalCount() / seconds, h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0);
+        }
+        System.out.printf("%nTotal: %d requests in %.1fs, %.1f req/s%n", requests, seconds, requests / seconds);
+    }
+}
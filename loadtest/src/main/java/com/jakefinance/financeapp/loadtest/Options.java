@@ -0,0 +1,61 @@
+package com.jakefinance.financeapp.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code --name=value} command-line options, with environment-variable and literal
+ * fallbacks. Unknown options are rejected so a typo doesn't silently run the defaults.
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Options(String[] args, String... known) {
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'");
+            }
+            String name = arg.substring(2, eq);
+            if (!List.of(known).contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + "; known: " + String.join(", ", known));
+            }
+            values.put(name, arg.substring(eq + 1));
+        }
+    }
+
+    String get(String name, String fallback) {
+        return values.getOrDefault(name, fallback);
+    }
+
+    /** The option, else the environment variable, else the fallback. */
+    String get(String name, String env, String fallback) {
+        String value = values.get(name);
+        if (value == null) {
+            value = System.getenv(env);
+        }
+        return value != null ? value : fallback;
+    }
+
+    int getInt(String name, int fallback) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+
+    long getLong(String name, long fallback) {
+        String value = values.get(name);
+        return value != null ? Long.parseLong(value) : fallback;
+    }
+
+    /** Seconds, or an ISO-8601 duration such as PT5M. */
+    Duration getDuration(String name, Duration fallback) {
+        String value = values.get(name);
+        if (value == null) {
+            return fallback;
+        }
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+}
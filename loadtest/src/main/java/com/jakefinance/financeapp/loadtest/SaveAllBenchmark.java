@@ -0,0 +1,156 @@
+package com.jakefinance.financeapp.loadtest;
+
+import com.jakefinance.financeapp.model.Account;
+import com.jakefinance.financeapp.model.Category;
+import com.jakefinance.financeapp.model.Money;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionType;
+import com.jakefinance.financeapp.model.TransactionTypeConverter;
+import com.jakefinance.financeapp.model.User;
+import com.jakefinance.financeapp.repository.DimensionRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategyStandardImpl;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Insert throughput of Spring Data's {@code saveAll} for transactions under the JDBC
+ * settings of application.properties and of the prod profile:
+ * <ul>
+ * <li>no batching: one INSERT round trip per row, which is also all IDENTITY ids allowed</li>
+ * <li>JDBC batches of 50 (hibernate.jdbc.batch_size, possible with sequence ids)</li>
+ * <li>batches rewritten by the driver into multi-row INSERTs (reWriteBatchedInserts), as in prod</li>
+ * </ul>
+ * Each setting gets its own Hibernate session factory and pool over the same database.
+ * A round saves --rows new transactions in one transaction for a scratch user and is
+ * timed through commit; the rows are deleted again afterwards. Reports the median of
+ * --rounds rounds after --warmup unmeasured ones.
+ *
+ * Against a local database a round trip costs tens of microseconds, so the measured gain
+ * mostly reflects less per-statement work; the round-trip column is what additionally
+ * scales with network latency to a remote database.
+ */
+public final class SaveAllBenchmark {
+
+    private static final String EMAIL = "saveall-benchmark@example.com";
+
+    private record Setting(String name, int batchSize, boolean rewrite) {}
+
+    private static final List<Setting> SETTINGS = List.of(
+            new Setting("no batching", 0, false),
+            new Setting("batch_size=50", 50, false),
+            new Setting("batch_size=50 + reWriteBatchedInserts (prod)", 50, true));
+
+    public static void main(String[] args) {
+        Options options = new Options(args, "jdbc-url", "db-user", "db-password", "rows", "rounds", "warmup");
+        String url = options.get("jdbc-url", "DB_URL", "jdbc:postgresql://localhost:5432/postgres");
+        String user = options.get("db-user", "DB_USER", "postgres");
+        String password = options.get("db-password", "DB_PASSWORD", "");
+        int rows = options.getInt("rows", 10_000);
+        int rounds = Math.max(1, options.getInt("rounds", 5));
+        int warmup = options.getInt("warmup", 2);
+
+        System.out.printf("saveAll of %d transactions, median of %d rounds%n%n", rows, rounds);
+        System.out.printf("%-48s %12s %10s %20s%n", "setting", "rows/s", "speedup", "INSERT round trips");
+        double baseline = 0;
+        for (Setting setting : SETTINGS) {
+            try (HikariDataSource dataSource = dataSource(url, user, password, setting.rewrite());
+                 SessionFactory sessionFactory = sessionFactory(dataSource, setting.batchSize())) {
+                double rate = run(new JdbcTemplate(dataSource), sessionFactory, rows, rounds, warmup);
+                if (baseline == 0) {
+                    baseline = rate;
+                }
+                System.out.printf("%-48s %12.0f %9.1fx %20d%n", setting.name(), rate, rate / baseline,
+                        setting.batchSize() == 0 ? rows : (rows + setting.batchSize() - 1) / setting.batchSize());
+            }
+        }
+    }
+
+    private static double run(JdbcTemplate jdbcTemplate, SessionFactory sessionFactory, int rows, int rounds, int warmup) {
+        Long userId = jdbcTemplate.queryForObject("insert into users (email, password, first_name) values (?, '-', 'Benchmark')"
+                + " on conflict (email) do update set first_name = excluded.first_name returning id", Long.class, EMAIL);
+        DimensionRepository dimensions = new DimensionRepository(jdbcTemplate);
+        Map<String, Long> accounts = dimensions.idsFor(DimensionRepository.ACCOUNT, userId, List.of("Checking", "Credit Card"));
+        Map<String, Long> categories = dimensions.idsFor(DimensionRepository.CATEGORY, userId, List.of("Groceries", "Dining", "Transport"));
+        Long[] accountIds = accounts.values().toArray(new Long[0]);
+        Long[] categoryIds = categories.values().toArray(new Long[0]);
+
+        Random random = new Random(42);
+        double[] rates = new double[rounds];
+        try {
+            for (int round = -warmup; round < rounds; round++) {
+                try (Session session = sessionFactory.openSession()) {
+                    User owner = session.getReference(User.class, userId);
+                    List<Transaction> transactions = new ArrayList<>(rows);
+                    for (int i = 0; i < rows; i++) {
+                        Transaction t = new Transaction();
+                        t.setTitle("Benchmark " + i);
+                        t.setAmount(Money.ofMinor(100 + random.nextInt(100_000)));
+                        t.setType(TransactionType.EXPENSE);
+                        t.setDate(LocalDate.now().minusDays(random.nextInt(365)));
+                        t.setAccountId(accountIds[random.nextInt(accountIds.length)]);
+                        t.setCategoryId(categoryIds[random.nextInt(categoryIds.length)]);
+                        t.setChangeSeq(0L);
+                        t.setUser(owner);
+                        transactions.add(t);
+                    }
+
+                    long start = System.nanoTime();
+                    session.beginTransaction();
+                    new SimpleJpaRepository<Transaction, Long>(Transaction.class, session).saveAll(transactions);
+                    session.getTransaction().commit();
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    if (round >= 0) {
+                        rates[round] = rows / seconds;
+                    }
+                }
+                jdbcTemplate.update("delete from transaction where user_id = ?", userId);
+            }
+        } finally {
+            jdbcTemplate.update("delete from transaction where user_id = ?", userId);
+            jdbcTemplate.update("delete from account where user_id = ?", userId);
+            jdbcTemplate.update("delete from category where user_id = ?", userId);
+            jdbcTemplate.update("delete from users where id = ?", userId);
+        }
+        Arrays.sort(rates);
+        return rates[rounds / 2];
+    }
+
+    private static HikariDataSource dataSource(String url, String user, String password, boolean rewrite) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(user);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(2);
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", String.valueOf(rewrite));
+        return dataSource;
+    }
+
+    // The entity mapping of the application, with only the batching settings varied
+    private static SessionFactory sessionFactory(HikariDataSource dataSource, int batchSize) {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, PhysicalNamingStrategyStandardImpl.INSTANCE)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .build();
+        return new MetadataSources(registry)
+                .addAnnotatedClasses(Transaction.class, User.class, Account.class, Category.class, TransactionTypeConverter.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+}
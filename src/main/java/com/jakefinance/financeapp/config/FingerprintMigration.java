@@ -0,0 +1,94 @@
+package com.jakefinance.financeapp.config;
+
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.service.TransactionFingerprinter;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flyway migration V5: fingerprints the transactions that predate import dedup, so
+ * re-uploading an old bank export skips what is already there. Flyway runs it once,
+ * before the web server starts, so no import can race it for the (user_id, fingerprint)
+ * key; it works on every row still without a fingerprint, and a failure rolls it back
+ * to be retried in full on the next start. Rows entered by hand later stay null.
+ *
+ * A user may already have fingerprinted rows (imports, or the startup backfill this
+ * replaces); a computed fingerprint that is taken gets the next occurrence suffix.
+ */
+@Component
+public class FingerprintMigration implements JavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(FingerprintMigration.class);
+
+    private static final String SELECT_UNFINGERPRINTED = "select t.id, t.title, t.amount_minor, a.name as account,"
+            + " t.date, t.notes from transaction t left join account a on a.id = t.account_id"
+            + " where t.user_id = ? and t.fingerprint is null order by t.id";
+
+    private static final String SET_FINGERPRINT = "update transaction set fingerprint = ? where id = ?";
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("5");
+    }
+
+    @Override
+    public String getDescription() {
+        return "fingerprint existing transactions";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        // Flyway's connection, inside its transaction
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        TransactionFingerprinter fingerprinter = new TransactionFingerprinter();
+        long total = 0;
+        for (Long userId : jdbcTemplate.queryForList(
+                "select distinct user_id from transaction where fingerprint is null and user_id is not null", Long.class)) {
+            Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(
+                    "select fingerprint from transaction where user_id = ? and fingerprint is not null", String.class, userId));
+            fingerprinter.reset();
+            List<Object[]> updates = new ArrayList<>();
+            jdbcTemplate.query(SELECT_UNFINGERPRINTED, rs -> {
+                Transaction t = new Transaction();
+                t.setTitle(rs.getString("title"));
+                t.setAmountMinor(rs.getLong("amount_minor"));
+                t.setAccount(rs.getString("account"));
+                Date date = rs.getDate("date");
+                t.setDate(date != null ? date.toLocalDate() : null);
+                t.setNotes(rs.getString("notes"));
+                String fingerprint = fingerprinter.next(t);
+                while (!taken.add(fingerprint)) {
+                    fingerprint = fingerprinter.next(t);
+                }
+                updates.add(new Object[]{fingerprint, rs.getLong("id")});
+            }, userId);
+            jdbcTemplate.batchUpdate(SET_FINGERPRINT, updates);
+            total += updates.size();
+        }
+        if (total > 0) {
+            log.info("Fingerprinted {} existing transaction(s) for import dedup", total);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.jakefinance.financeapp.config;
 
 import com.jakefinance.financeapp.service.JwtService;
+import com.jakefinance.financeapp.service.StreamTicketService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,9 +20,14 @@ import java.io.IOException;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final String CHANGE_FEED_PATH = "/api/changes";
+
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private StreamTicketService streamTicketService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -29,20 +35,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String email;
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        final String subject;
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            JwtService.VerifiedToken token = jwtService.verify(authHeader.substring(7));
+            subject = token != null ? token.subject() : null;
+        } else if (CHANGE_FEED_PATH.equals(request.getServletPath()) && request.getParameter("ticket") != null) {
+            // EventSource can't send headers, so the change feed takes a single-use ticket
+            // (POST /api/changes/ticket) as a parameter; never the JWT itself
+            subject = streamTicketService.redeem(request.getParameter("ticket"));
+        } else {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        email = jwtService.extractEmail(jwt);
-
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // An invalid or expired token or ticket simply leaves the request unauthenticated
+        if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(email, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+                    new UsernamePasswordAuthenticationToken(subject, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
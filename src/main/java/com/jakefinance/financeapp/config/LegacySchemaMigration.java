@@ -0,0 +1,107 @@
+package com.jakefinance.financeapp.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flyway migration V1: one-time conversions of databases that Hibernate's ddl-auto=update
+ * managed before migrations existed, and that plain DDL can't express. Each step checks
+ * for the old shape first, so on a new (empty) database this does nothing and V2 creates
+ * the schema. Spring Boot hands JavaMigration beans to Flyway.
+ *
+ * - Money: transaction.amount and monthly_rollup.total, floating point, become exact
+ *   minor units (see Money) in amount_minor / total_minor.
+ * - Dimensions: the free-text transaction.account and category columns move into
+ *   per-user account / category rows referenced by id (names that differ only in case
+ *   or surrounding blanks share a row), types are normalized to the
+ *   TransactionType codes (anything else becomes null), and the old-shape monthly_rollup
+ *   is dropped. The startup backfill (RollupRebuildJob) rebuilds the rollup.
+ */
+@Component
+public class LegacySchemaMigration implements JavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacySchemaMigration.class);
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "convert legacy schema";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        // Flyway's connection, inside its transaction
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        convertToMinorUnits(jdbcTemplate, "transaction", "amount", "amount_minor");
+        convertToMinorUnits(jdbcTemplate, "monthly_rollup", "total", "total_minor");
+        moveToDimensionTables(jdbcTemplate);
+    }
+
+    private void convertToMinorUnits(JdbcTemplate jdbcTemplate, String table, String column, String minorColumn) {
+        if (!hasColumn(jdbcTemplate, table, column, "double precision")) {
+            return;
+        }
+        // Via numeric, so 0.1 converts to 10 rather than to whatever 0.1 * 100 is in binary
+        jdbcTemplate.execute("alter table " + table + " rename column " + column + " to " + minorColumn);
+        jdbcTemplate.execute("alter table " + table + " alter column " + minorColumn
+                + " type bigint using round(" + minorColumn + "::numeric * 100)");
+        log.info("Converted {}.{} to {} (minor units)", table, column, minorColumn);
+    }
+
+    private void moveToDimensionTables(JdbcTemplate jdbcTemplate) {
+        if (!hasColumn(jdbcTemplate, "transaction", "account", "character varying")) {
+            return;
+        }
+        for (String table : new String[]{"account", "category"}) {
+            jdbcTemplate.execute("create table if not exists " + table + " (id bigint generated by default as identity"
+                    + " primary key, user_id bigint not null, name varchar(255) not null,"
+                    + " constraint uk_" + table + "_user_name unique (user_id, name))");
+            // One row per name ignoring case and surrounding blanks (as DimensionRepository
+            // matches them), spelled the way the user wrote it most often
+            jdbcTemplate.execute("insert into " + table + " (user_id, name) select distinct on (user_id, lower(name))"
+                    + " user_id, name from (select user_id, btrim(" + table + ") as name, count(*) as uses"
+                    + " from transaction where user_id is not null and btrim(" + table + ") <> ''"
+                    + " group by 1, 2) v order by user_id, lower(name), uses desc, name"
+                    + " on conflict do nothing");
+        }
+        jdbcTemplate.execute("alter table transaction add column if not exists account_id bigint,"
+                + " add column if not exists category_id bigint");
+        int rows = jdbcTemplate.update("update transaction t"
+                + " set account_id = (select a.id from account a where a.user_id = t.user_id"
+                + " and lower(a.name) = lower(btrim(t.account))),"
+                + " category_id = (select c.id from category c where c.user_id = t.user_id"
+                + " and lower(c.name) = lower(btrim(t.category)))"
+                + " where t.account is not null or t.category is not null");
+        int retyped = jdbcTemplate.update("update transaction set type = case when lower(trim(type)) in ('income', 'expense')"
+                + " then lower(trim(type)) end where type not in ('income', 'expense')");
+        jdbcTemplate.execute("alter table transaction drop column account, drop column category");
+        jdbcTemplate.execute("drop table if exists monthly_rollup");
+        log.info("Moved account and category of {} transaction(s) to id references; normalized {} type(s)", rows, retyped);
+    }
+
+    private boolean hasColumn(JdbcTemplate jdbcTemplate, String table, String column, String dataType) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select exists (select 1 from information_schema.columns"
+                + " where table_schema = current_schema() and table_name = ? and column_name = ? and data_type = ?)",
+                Boolean.class, table, column, dataType));
+    }
+}
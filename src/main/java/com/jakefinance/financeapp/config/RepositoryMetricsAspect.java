@@ -0,0 +1,121 @@
+package com.jakefinance.financeapp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Entity;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every repository call and records how many rows it returned, for the Spring Data
+ * repositories and the JdbcTemplate ones alike: {@code repository.invocations} (timer) and
+ * {@code repository.rows} (distribution summary), tagged by repository and method. Calls
+ * that return a scalar (a count, a sum) or nothing are timed but not counted.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final Map<Key, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private record Key(Class<?> type, Method method) {}
+
+    private record Meters(String repository, Timer timer, DistributionSummary rows) {}
+
+    @Around("execution(public * *(..)) && (within(com.jakefinance.financeapp.repository..*)"
+            + " || this(org.springframework.data.repository.Repository))")
+    public Object record(ProceedingJoinPoint call) throws Throwable {
+        Method method = ((MethodSignature) call.getSignature()).getMethod();
+        Meters m = meters.computeIfAbsent(new Key(call.getThis().getClass(), method),
+                key -> register(call.getThis(), method));
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call.proceed();
+        } catch (Throwable e) {
+            Timer.builder("repository.invocations")
+                    .tags("repository", m.repository(), "method", method.getName(), "exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        m.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (m.rows() != null) {
+            m.rows().record(rows(result));
+        }
+        return result;
+    }
+
+    private Meters register(Object proxy, Method method) {
+        String repository = repositoryName(proxy);
+        Timer timer = Timer.builder("repository.invocations")
+                .tags("repository", repository, "method", method.getName(), "exception", "none")
+                .register(registry);
+        DistributionSummary rows = returnsRows(method.getReturnType())
+                ? DistributionSummary.builder("repository.rows")
+                        .baseUnit("rows")
+                        .tags("repository", repository, "method", method.getName())
+                        .register(registry)
+                : null;
+        return new Meters(repository, timer, rows);
+    }
+
+    // Spring Data repositories are proxies of our interface; the JDBC ones are CGLIB subclasses
+    private static String repositoryName(Object proxy) {
+        if (proxy instanceof Repository<?, ?>) {
+            for (Class<?> type : ClassUtils.getAllInterfaces(proxy)) {
+                if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(proxy).getSimpleName();
+    }
+
+    private static boolean returnsRows(Class<?> type) {
+        return Iterable.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+                || Optional.class.isAssignableFrom(type) || type.isAnnotationPresent(Entity.class);
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> iterable) {
+            long n = 0;
+            for (Object ignored : iterable) {
+                n++;
+            }
+            return n;
+        }
+        return result != null ? 1 : 0;
+    }
+}
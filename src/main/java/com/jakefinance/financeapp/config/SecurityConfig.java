@@ -1,5 +1,6 @@
 package com.jakefinance.financeapp.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,7 +30,14 @@ public class SecurityConfig {
             .cors(Customizer.withDefaults()) // This looks for the bean below
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // Async re-dispatch (streaming exports) was already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                // Liveness / readiness probes on the public port (management.endpoint.health.probes)
+                .requestMatchers("/livez", "/readyz").permitAll()
+                // Actuator endpoints only exist on the management port, which listens on an internal
+                // address (management.server.*); Prometheus scrapes it there without a user token
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
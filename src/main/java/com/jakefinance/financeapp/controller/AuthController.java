@@ -3,6 +3,8 @@ package com.jakefinance.financeapp.controller;
 import com.jakefinance.financeapp.model.User;
 import com.jakefinance.financeapp.service.AuthService;
 import com.jakefinance.financeapp.service.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +15,8 @@ import java.util.Map;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final AuthService authService;
     private final JwtService jwtService;
 
@@ -31,14 +35,13 @@ public class AuthController {
         try {
             User newUser = authService.register(email, password, firstName, lastName);
             String newUserFirstName = newUser.getFirstName();
-            System.out.println("Register - New user firstName: " + newUserFirstName);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "User registered successfully");
             response.put("email", newUser.getEmail());
             response.put("firstName", (newUserFirstName != null && !newUserFirstName.trim().isEmpty()) ? newUserFirstName.trim() : "");
             
-            System.out.println("Register - Response map: " + response);
+            log.debug("Registered user {}", newUser.getEmail());
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -58,11 +61,6 @@ public class AuthController {
 
             // ✅ Return it in response
             String userFirstName = user.getFirstName();
-            System.out.println("=== BACKEND LOGIN DEBUG ===");
-            System.out.println("Login - User object: " + user);
-            System.out.println("Login - User firstName: " + userFirstName);
-            System.out.println("Login - User firstName is null: " + (userFirstName == null));
-            System.out.println("Login - User firstName isEmpty: " + (userFirstName != null && userFirstName.trim().isEmpty()));
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Login successful");
@@ -80,11 +78,7 @@ public class AuthController {
                 response.put("firstName", "");
             }
             
-            System.out.println("Login - firstNameValue being put: '" + firstNameValue + "'");
-            System.out.println("Login - Response map size: " + response.size());
-            System.out.println("Login - Response map keys: " + response.keySet());
-            System.out.println("Login - Response map firstName: " + response.get("firstName"));
-            System.out.println("=== END BACKEND LOGIN DEBUG ===");
+            log.debug("Login for {}, firstName present: {}", user.getEmail(), !firstNameValue.isEmpty());
             
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
@@ -0,0 +1,48 @@
+package com.jakefinance.financeapp.controller;
+
+import com.jakefinance.financeapp.service.ChangeFeed;
+import com.jakefinance.financeapp.service.StreamTicketService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+    private final StreamTicketService streamTicketService;
+
+    public ChangeFeedController(ChangeFeed changeFeed, StreamTicketService streamTicketService) {
+        this.changeFeed = changeFeed;
+        this.streamTicketService = streamTicketService;
+    }
+
+    /**
+     * Server-Sent Events stream of the user's transaction, goal and rollup changes.
+     * Browsers' EventSource can't set headers, so it may authenticate with
+     * {@code ?ticket=} from {@link #ticket} instead.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Principal principal) {
+        String email = principal.getName();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no") // stop nginx-style proxies from buffering the stream
+                .body(changeFeed.subscribe(email));
+    }
+
+    /** Single-use ticket for opening one stream with {@code ?ticket=}, valid for 30 seconds. */
+    @PostMapping("/ticket")
+    public ResponseEntity<Map<String, Object>> ticket(Principal principal) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("ticket", streamTicketService.issue(principal.getName()),
+                        "expiresIn", StreamTicketService.TTL.toSeconds()));
+    }
+}
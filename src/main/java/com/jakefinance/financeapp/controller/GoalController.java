@@ -1,7 +1,10 @@
 package com.jakefinance.financeapp.controller;
 
+import com.jakefinance.financeapp.model.BulkRequest;
 import com.jakefinance.financeapp.model.Goal;
 import com.jakefinance.financeapp.service.GoalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +17,8 @@ import java.util.Map;
 @RequestMapping("/api/goals")
 public class GoalController {
 
+    private static final Logger log = LoggerFactory.getLogger(GoalController.class);
+
     private final GoalService goalService;
 
     public GoalController(GoalService goalService) {
@@ -43,17 +48,16 @@ public class GoalController {
                 goal.setCompleted(false);
             }
             
-            // Log for debugging
-            System.out.println("Received goal: text=" + goal.getText() + ", steps=" + goal.getSteps() + ", timeframe=" + goal.getTimeframe() + ", completed=" + goal.getCompleted());
+            log.debug("Adding goal for {}: timeframe={}, completed={}", email, goal.getTimeframe(), goal.getCompleted());
             
             Goal saved = goalService.addGoal(goal, email);
             return ResponseEntity.status(HttpStatus.CREATED).body(saved);
         } catch (IllegalArgumentException e) {
-            e.printStackTrace();
+            log.debug("Rejected goal: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to create goal", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to create goal: " + e.getMessage()));
         }
@@ -98,5 +102,20 @@ public class GoalController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
-}
 
+    /**
+     * Completes or deletes many goals at once. Body: {"action": "complete" | "delete",
+     * "ids": [...]}. Goals that don't exist or aren't the user's are skipped.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdate(@RequestBody BulkRequest request, Principal principal) {
+        try {
+            String email = principal.getName();
+            int affected = goalService.bulkUpdate(request, email);
+            return ResponseEntity.ok(Map.of("affected", affected));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.jakefinance.financeapp.controller;
+
+import com.jakefinance.financeapp.model.ImportJob;
+import com.jakefinance.financeapp.service.ImportJobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    private final ImportJobService importJobService;
+
+    public ImportController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable String id, Principal principal) {
+        String email = principal.getName();
+        return importJobService.getJob(id, email)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
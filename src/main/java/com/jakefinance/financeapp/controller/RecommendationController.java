@@ -1,6 +1,8 @@
 package com.jakefinance.financeapp.controller;
 
 import com.jakefinance.financeapp.service.RecommendationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,6 +13,8 @@ import java.util.Map;
 @RequestMapping("/api/recommendations")
 public class RecommendationController {
 
+    private static final Logger log = LoggerFactory.getLogger(RecommendationController.class);
+
     private final RecommendationService recommendationService;
 
     public RecommendationController(RecommendationService recommendationService) {
@@ -27,7 +31,7 @@ public class RecommendationController {
             Map<String, Object> recommendations = recommendationService.getRecommendations(email, page, size);
             return ResponseEntity.ok(recommendations);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to fetch recommendations", e);
             return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch recommendations: " + e.getMessage()));
         }
     }
@@ -0,0 +1,35 @@
+package com.jakefinance.financeapp.controller;
+
+import com.jakefinance.financeapp.model.SyncResponse;
+import com.jakefinance.financeapp.service.SyncService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Transactions and goals changed after version {@code since}, plus deleted ids.
+     * Omit {@code since} (or pass 0) for a full snapshot.
+     */
+    @GetMapping
+    public ResponseEntity<?> sync(@RequestParam(defaultValue = "0") long since, Principal principal) {
+        try {
+            String email = principal.getName();
+            SyncResponse response = syncService.changesSince(email, since);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
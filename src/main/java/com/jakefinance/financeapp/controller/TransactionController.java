@@ -1,28 +1,55 @@
 package com.jakefinance.financeapp.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.AccountSummary;
+import com.jakefinance.financeapp.model.BatchRequest;
+import com.jakefinance.financeapp.model.BatchResult;
+import com.jakefinance.financeapp.model.BulkRequest;
+import com.jakefinance.financeapp.model.CategorySummary;
+import com.jakefinance.financeapp.model.ExportFormat;
+import com.jakefinance.financeapp.model.ImportJob;
+import com.jakefinance.financeapp.model.MonthlySummary;
 import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionFilter;
+import com.jakefinance.financeapp.model.TransactionPage;
+import com.jakefinance.financeapp.model.TransactionTotals;
+import com.jakefinance.financeapp.service.ImportJobService;
+import com.jakefinance.financeapp.service.TransactionBatchService;
+import com.jakefinance.financeapp.service.TransactionExportService;
 import com.jakefinance.financeapp.service.TransactionService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.*;
+import java.net.URI;
 import java.security.Principal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
     private final TransactionService transactionService;
-    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/yyyy");
-
-    public TransactionController(TransactionService transactionService) {
+    private final ImportJobService importJobService;
+    private final TransactionExportService exportService;
+    private final TransactionBatchService batchService;
+
+    public TransactionController(TransactionService transactionService,
+                                 ImportJobService importJobService,
+                                 TransactionExportService exportService,
+                                 TransactionBatchService batchService) {
         this.transactionService = transactionService;
+        this.importJobService = importJobService;
+        this.exportService = exportService;
+        this.batchService = batchService;
     }
 
     @GetMapping
@@ -32,6 +59,56 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getTransactionPage(@ModelAttribute TransactionFilter filter,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit,
+                                                Principal principal) {
+        try {
+            String email = principal.getName();
+            TransactionPage page = transactionService.getTransactionPage(email, filter, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<TransactionTotals> getSummary(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                        @RequestParam(required = false) String account,
+                                                        Principal principal) {
+        String email = principal.getName();
+        return ResponseEntity.ok(transactionService.getTotals(email, from, to, account));
+    }
+
+    @GetMapping("/summary/categories")
+    public ResponseEntity<List<CategorySummary>> getCategorySummary(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                    @RequestParam(required = false) String account,
+                                                                    @RequestParam(defaultValue = "false") boolean byMonth,
+                                                                    Principal principal) {
+        String email = principal.getName();
+        return ResponseEntity.ok(transactionService.getCategorySummary(email, from, to, account, byMonth));
+    }
+
+    @GetMapping("/summary/monthly")
+    public ResponseEntity<List<MonthlySummary>> getMonthlySummary(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                  @RequestParam(required = false) String account,
+                                                                  Principal principal) {
+        String email = principal.getName();
+        return ResponseEntity.ok(transactionService.getMonthlySummary(email, from, to, account));
+    }
+
+    @GetMapping("/summary/accounts")
+    public ResponseEntity<List<AccountSummary>> getAccountSummary(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                  Principal principal) {
+        String email = principal.getName();
+        return ResponseEntity.ok(transactionService.getAccountSummary(email, from, to));
+    }
+
     @PostMapping
     public ResponseEntity<Transaction> addTransaction(@RequestBody Transaction transaction,
                                                       Principal principal) {
@@ -41,125 +118,101 @@ public class TransactionController {
     }
 
     @DeleteMapping("/{id}")
-    public void deleteTransaction(@PathVariable Long id) {
-        transactionService.deleteTransaction(id);
+    public ResponseEntity<Void> deleteTransaction(@PathVariable Long id, Principal principal) {
+        String email = principal.getName();
+        return transactionService.deleteTransaction(id, email)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Applies one action to many of the user's transactions in a single statement.
+     * Body: {"action": "delete", "ids": [...]}. Ids that don't exist or aren't the
+     * user's are skipped; the response reports how many were affected.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdate(@RequestBody BulkRequest request, Principal principal) {
+        try {
+            String email = principal.getName();
+            if (!"delete".equals(request.getAction())) {
+                throw new IllegalArgumentException("action must be 'delete'");
+            }
+            int affected = transactionService.deleteTransactions(request.requireIds(), email);
+            return ResponseEntity.ok(Map.of("affected", affected));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Applies a list of create / update / delete / recategorize operations atomically.
+     * Body: {"operations": [...]}; the response has one result per operation, in order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> batch(@RequestBody BatchRequest request, Principal principal) {
+        try {
+            String email = principal.getName();
+            List<BatchResult> results = batchService.apply(request, email);
+            return ResponseEntity.ok(Map.of("results", results));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
+    /**
+     * Streams the user's transactions as JSON (default), NDJSON or CSV, optionally
+     * limited to a date range and gzip-compressed. Rows go out as they are read, so
+     * the response is never held in memory.
+     */
     @GetMapping("/export")
-    public ResponseEntity<List<Transaction>> exportTransactions(Principal principal) {
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(defaultValue = "json") String format,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                                                    Principal principal) {
+        ExportFormat exportFormat = ExportFormat.parse(format); // unsupported -> 400 via GlobalExceptionHandler
         String email = principal.getName();
-        List<Transaction> transactions = transactionService.getAllTransactions(email);
-        return ResponseEntity.ok(transactions);
+        String filename = "transactions-" + LocalDate.now() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exportService.export(email, from, to, exportFormat, gzip, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
     }
 
+    /**
+     * Queues the upload as a background import and returns its job id right away;
+     * poll {@code GET /api/imports/{jobId}} for progress.
+     */
     @PostMapping("/import")
     public ResponseEntity<Map<String, Object>> importTransactions(@RequestParam("file") MultipartFile file,
                                                                    Principal principal) {
         try {
-            String filename = file.getOriginalFilename();
-            List<Transaction> transactions;
-
-            if (filename != null && filename.endsWith(".csv")) {
-                transactions = parseCsv(file);
-            } else {
-                ObjectMapper mapper = new ObjectMapper();
-                transactions = Arrays.asList(mapper.readValue(file.getInputStream(), Transaction[].class));
-            }
-
-            if (transactions.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of(
-                        "error", "No valid transactions found in file",
-                        "imported", 0,
-                        "details", "Please check that your file contains valid data with the required columns (Amount, Type, Account)."
-                    ));
-            }
-
             String email = principal.getName();
-            List<Transaction> saved = transactionService.saveAll(transactions, email);
-            
-            return ResponseEntity.ok(Map.of(
-                "message", "Imported successfully",
-                "imported", saved.size(),
-                "details", saved.size() + " transaction(s) were imported and saved to your account."
-            ));
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            ImportJob job = importJobService.submit(file, email);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/imports/" + job.getId()))
                 .body(Map.of(
-                    "error", "Invalid file: " + e.getMessage(),
+                    "message", "Import started",
+                    "jobId", job.getId(),
+                    "status", job.getStatus(),
+                    "details", "Your file is being imported. Check /api/imports/" + job.getId() + " for progress."
+                ));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of(
+                    "error", "Too many imports in progress",
                     "imported", 0,
-                    "details", "Please check your file format and ensure it matches the required structure."
+                    "details", "Please wait for your current imports to finish and try again."
                 ));
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of(
-                    "error", "Import failed: " + e.getMessage(),
+                    "error", "Invalid file: " + e.getMessage(),
                     "imported", 0,
-                    "details", "An unexpected error occurred. Please try again."
+                    "details", "Please check your file format and ensure it matches the required structure."
                 ));
         }
     }
-
-    private List<Transaction> parseCsv(MultipartFile file) throws IOException {
-        List<Transaction> transactions = new ArrayList<>();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-        String line;
-        String[] headers = null;
-
-        if ((line = reader.readLine()) != null) {
-            headers = line.toLowerCase().split(",");
-        } else {
-            throw new IOException("CSV file is empty");
-        }
-
-        while ((line = reader.readLine()) != null) {
-            String[] tokens = line.split(",", -1);
-            if (tokens.length != headers.length) continue;
-
-            try {
-                Transaction t = new Transaction();
-
-                for (int i = 0; i < headers.length; i++) {
-                    String header = headers[i].trim();
-                    String value = tokens[i].replaceAll("\"", "").trim();
-
-                    switch (header) {
-                        case "title": t.setTitle(value.isEmpty() ? "Untitled" : value); break;
-                        case "amount":
-                            if (value.isEmpty()) throw new IllegalArgumentException("Amount required");
-                            t.setAmount(Double.parseDouble(value.replaceAll("[^\\d.-]", "")));
-                            break;
-                        case "type":
-                            if (value.isEmpty()) throw new IllegalArgumentException("Type required");
-                            t.setType(value.toLowerCase());
-                            break;
-                        case "category": t.setCategory(value.isEmpty() ? "Uncategorized" : value); break;
-                        case "account":
-                            if (value.isEmpty()) throw new IllegalArgumentException("Account required");
-                            t.setAccount(value);
-                            break;
-                        case "date":
-                            if (!value.isEmpty()) {
-                                t.setDate(LocalDate.parse(value, CSV_DATE_FORMAT));
-                            } else {
-                                t.setDate(LocalDate.now());
-                            }
-                            break;
-                        case "notes": t.setNotes(value); break;
-                        default: break;
-                    }
-                }
-
-                if (t.getAmount() == null || t.getType() == null || t.getAccount() == null) continue;
-
-                transactions.add(t);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-
-        return transactions;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.jakefinance.financeapp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * One of a user's accounts. Transactions reference it by id, so renaming an account is
+ * a single-row update. Names are unique per user ignoring case and surrounding blanks
+ * (unique index on lower(name), see V6); rows are created on first use (see DimensionService).
+ */
+@Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@BatchSize(size = 50)
+@Table(name = "account")
+public class Account {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String name;
+
+    public Account() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getName() { return name; }
+
+    // Setters
+    public void setName(String name) { this.name = name; }
+}
@@ -0,0 +1,25 @@
+package com.jakefinance.financeapp.model;
+
+/**
+ * Per-account rollup: income, expenses and resulting balance.
+ */
+public class AccountSummary {
+
+    private final String account;
+    private final long income;
+    private final long expenses;
+    private final long count;
+
+    public AccountSummary(String account, Long income, Long expenses, Long count) {
+        this.account = account;
+        this.income = income != null ? income : 0L;
+        this.expenses = expenses != null ? expenses : 0L;
+        this.count = count != null ? count : 0L;
+    }
+
+    public String getAccount() { return account; }
+    public Money getIncome() { return Money.ofMinor(income); }
+    public Money getExpenses() { return Money.ofMinor(expenses); }
+    public Money getBalance() { return Money.ofMinor(income - expenses); }
+    public long getCount() { return count; }
+}
@@ -0,0 +1,35 @@
+package com.jakefinance.financeapp.model;
+
+/**
+ * One entry of a transaction batch request:
+ * <ul>
+ *   <li>{@code create}: {@code transaction} is the new row</li>
+ *   <li>{@code update}: {@code id}, plus {@code transaction} holding only the fields to change</li>
+ *   <li>{@code delete}: {@code id}</li>
+ *   <li>{@code recategorize}: set {@code category} on every transaction that {@code match}es</li>
+ * </ul>
+ */
+public class BatchOperation {
+
+    private String op;
+    private Long id;
+    private TransactionPatch transaction;
+    private String category;
+    private TransactionMatch match;
+
+    public BatchOperation() {}
+
+    // Getters
+    public String getOp() { return op; }
+    public Long getId() { return id; }
+    public TransactionPatch getTransaction() { return transaction; }
+    public String getCategory() { return category; }
+    public TransactionMatch getMatch() { return match; }
+
+    // Setters
+    public void setOp(String op) { this.op = op; }
+    public void setId(Long id) { this.id = id; }
+    public void setTransaction(TransactionPatch transaction) { this.transaction = transaction; }
+    public void setCategory(String category) { this.category = category; }
+    public void setMatch(TransactionMatch match) { this.match = match; }
+}
@@ -0,0 +1,22 @@
+package com.jakefinance.financeapp.model;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/transactions/batch}: operations applied in order, all in one
+ * database transaction.
+ */
+public class BatchRequest {
+
+    public static final int MAX_OPERATIONS = 1000;
+
+    private List<BatchOperation> operations;
+
+    public BatchRequest() {}
+
+    // Getters
+    public List<BatchOperation> getOperations() { return operations; }
+
+    // Setters
+    public void setOperations(List<BatchOperation> operations) { this.operations = operations; }
+}
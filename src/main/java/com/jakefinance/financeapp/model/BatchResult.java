@@ -0,0 +1,29 @@
+package com.jakefinance.financeapp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one batch operation. {@code status} is created, updated, deleted or
+ * not_found; {@code id} is set for single-row operations and {@code affected} counts
+ * the rows a recategorize changed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+
+    private final int index;
+    private final String status;
+    private final Long id;
+    private final Integer affected;
+
+    public BatchResult(int index, String status, Long id, Integer affected) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.affected = affected;
+    }
+
+    public int getIndex() { return index; }
+    public String getStatus() { return status; }
+    public Long getId() { return id; }
+    public Integer getAffected() { return affected; }
+}
@@ -0,0 +1,35 @@
+package com.jakefinance.financeapp.model;
+
+import java.util.List;
+
+/**
+ * Body of the bulk endpoints: an action applied to every listed id the caller owns.
+ */
+public class BulkRequest {
+
+    public static final int MAX_IDS = 1000;
+
+    private String action;
+    private List<Long> ids;
+
+    public BulkRequest() {}
+
+    /** Checks that ids are present and within {@link #MAX_IDS}; throws IllegalArgumentException otherwise. */
+    public List<Long> requireIds() {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids required");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request");
+        }
+        return ids;
+    }
+
+    // Getters
+    public String getAction() { return action; }
+    public List<Long> getIds() { return ids; }
+
+    // Setters
+    public void setAction(String action) { this.action = action; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
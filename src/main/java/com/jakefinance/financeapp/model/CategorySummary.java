@@ -0,0 +1,40 @@
+package com.jakefinance.financeapp.model;
+
+/**
+ * Per-category rollup. {@code year} and {@code month} are only populated when the
+ * rollup is also broken down by month; otherwise they are null.
+ */
+public class CategorySummary {
+
+    private final Integer year;
+    private final Integer month;
+    private final String category;
+    private final long income;
+    private final long expenses;
+    private final long count;
+
+    public CategorySummary(String category, Long income, Long expenses, Long count) {
+        this(null, null, category, income, expenses, count);
+    }
+
+    // yearMonth is encoded as yyyy * 100 + mm (see MonthlyRollup); 0 means undated
+    public CategorySummary(Integer yearMonth, String category, Long income, Long expenses, Long count) {
+        this(MonthlyRollup.yearOf(yearMonth), MonthlyRollup.monthOf(yearMonth), category, income, expenses, count);
+    }
+
+    public CategorySummary(Integer year, Integer month, String category, Long income, Long expenses, Long count) {
+        this.year = year;
+        this.month = month;
+        this.category = category;
+        this.income = income != null ? income : 0L;
+        this.expenses = expenses != null ? expenses : 0L;
+        this.count = count != null ? count : 0L;
+    }
+
+    public Integer getYear() { return year; }
+    public Integer getMonth() { return month; }
+    public String getCategory() { return category; }
+    public Money getIncome() { return Money.ofMinor(income); }
+    public Money getExpenses() { return Money.ofMinor(expenses); }
+    public long getCount() { return count; }
+}
@@ -0,0 +1,33 @@
+package com.jakefinance.financeapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A user's change sequence for delta sync. Every write transaction that touches the
+ * user's transactions or goals takes the next value and stamps it on the rows it writes
+ * (or on tombstones for rows it deletes). Taking the value row-locks the counter until
+ * commit, so a user's writes commit in sequence order and a client that has synced up to
+ * {@code seq} can never later miss a smaller one. {@code prunedSeq} is the highest
+ * sequence whose tombstones have been discarded; clients behind it need a full sync.
+ */
+@Entity
+@Table(name = "change_counter")
+public class ChangeCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(name = "pruned_seq", nullable = false)
+    private long prunedSeq;
+
+    public ChangeCounter() {}
+
+    // Getters
+    public Long getUserId() { return userId; }
+    public long getSeq() { return seq; }
+    public long getPrunedSeq() { return prunedSeq; }
+}
@@ -0,0 +1,31 @@
+package com.jakefinance.financeapp.model;
+
+import java.util.Locale;
+
+/**
+ * Output formats supported by {@code GET /api/transactions/export}.
+ */
+public enum ExportFormat {
+    JSON("application/json", "json"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + value + " (use json, ndjson or csv)");
+        }
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+}
@@ -1,6 +1,8 @@
 package com.jakefinance.financeapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -8,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDate;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "goals")
 @JsonIgnoreProperties(ignoreUnknown = true) // Ignore unknown properties from JSON
 public class Goal {
@@ -34,6 +37,11 @@ public class Goal {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY) // Don't allow setting from JSON, only read
     private LocalDate completedAt;
 
+    // Delta sync: the user's change sequence value of the last write to this goal (see ChangeCounter)
+    @Column(name = "change_seq")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long changeSeq;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -59,6 +67,7 @@ public class Goal {
     public LocalDate getCreatedAt() { return createdAt; }
     public Boolean getCompleted() { return completed; }
     public LocalDate getCompletedAt() { return completedAt; }
+    public Long getChangeSeq() { return changeSeq; }
     public User getUser() { return user; }
 
     // Setters
@@ -69,6 +78,7 @@ public class Goal {
     public void setCreatedAt(LocalDate createdAt) { this.createdAt = createdAt; }
     public void setCompleted(Boolean completed) { this.completed = completed; }
     public void setCompletedAt(LocalDate completedAt) { this.completedAt = completedAt; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
     public void setUser(User user) { this.user = user; }
 }
 
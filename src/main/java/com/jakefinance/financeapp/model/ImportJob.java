@@ -0,0 +1,68 @@
+package com.jakefinance.financeapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * An import running in the background. Held in memory by ImportJobService and
+ * returned as-is by {@code GET /api/imports/{id}}.
+ */
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Long userId;
+    private final String filename;
+    private final Instant createdAt = Instant.now();
+    private final ImportResult result = new ImportResult();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public ImportJob(String id, Long userId, String filename) {
+        this.id = id;
+        this.userId = userId;
+        this.filename = filename;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // Getters
+    public String getId() { return id; }
+    @JsonIgnore
+    public Long getUserId() { return userId; }
+    public String getFilename() { return filename; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public Status getStatus() { return status; }
+    public String getError() { return error; }
+    @JsonIgnore
+    public ImportResult getResult() { return result; }
+    public long getParsed() { return result.getParsed(); }
+    public long getPersisted() { return result.getImported(); }
+    public long getSkipped() { return result.getSkipped(); }
+    public long getRejected() { return result.getFailed(); }
+    public List<ImportRowError> getErrors() { return result.getErrors(); }
+}
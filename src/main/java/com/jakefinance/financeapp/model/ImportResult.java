@@ -0,0 +1,50 @@
+package com.jakefinance.financeapp.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Progress and outcome of a transaction import: rows parsed so far, how many were
+ * saved, how many were skipped as duplicates of earlier imports, how many were
+ * rejected, and why. Only the first {@link #MAX_REPORTED_ERRORS}
+ * rejections are kept so a badly formatted 100k-row file can't blow up the response.
+ *
+ * Written by the single thread running the import and read while it runs by status
+ * polls, hence the volatile counters.
+ */
+public class ImportResult {
+
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private volatile long parsed;
+    private volatile long imported;
+    private volatile long skipped;
+    private volatile long failed;
+    private final List<ImportRowError> errors = new CopyOnWriteArrayList<>();
+
+    public void addParsed() {
+        parsed++;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addSkipped(long count) {
+        skipped += count;
+    }
+
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportRowError(row, message));
+        }
+    }
+
+    // Getters
+    public long getParsed() { return parsed; }
+    public long getImported() { return imported; }
+    public long getSkipped() { return skipped; }
+    public long getFailed() { return failed; }
+    public List<ImportRowError> getErrors() { return errors; }
+}
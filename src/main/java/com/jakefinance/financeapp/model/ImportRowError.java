@@ -0,0 +1,19 @@
+package com.jakefinance.financeapp.model;
+
+/**
+ * One rejected row in an import. {@code row} is the CSV line number, or the
+ * 1-based element index for JSON.
+ */
+public class ImportRowError {
+
+    private final long row;
+    private final String message;
+
+    public ImportRowError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() { return row; }
+    public String getMessage() { return message; }
+}
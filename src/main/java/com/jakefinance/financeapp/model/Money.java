@@ -0,0 +1,82 @@
+package com.jakefinance.financeapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount of money, held as a count of minor units (cents). Amounts are stored
+ * and summed as plain longs; JSON and CSV carry the usual decimal form, e.g. 12.50.
+ * Input with more than {@link #SCALE} decimals is rounded half-up.
+ */
+public record Money(long minor) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    // Long.MAX_VALUE minor units is 92,233,720,368,547,758.07: 17 whole digits
+    private static final int MAX_WHOLE_DIGITS = 17;
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        // Checked on precision and scale before rescaling, which costs time proportional to
+        // the exponent: a few bytes of input like 1e30000000 would otherwise take seconds
+        if (amount.signum() == 0) {
+            return ZERO;
+        }
+        long wholeDigits = (long) amount.precision() - amount.scale();
+        if (wholeDigits > MAX_WHOLE_DIGITS) {
+            throw new IllegalArgumentException("Amount out of range");
+        }
+        if (wholeDigits < -SCALE) {
+            return ZERO; // below 0.001, rounds to zero
+        }
+        try {
+            return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range");
+        }
+    }
+
+    /** Parses a plain decimal like "-1234.5"; throws IllegalArgumentException otherwise. */
+    public static Money parse(CharSequence value) {
+        try {
+            return of(new BigDecimal(value.toString()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount '" + value + "'");
+        }
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    public boolean isPositive() {
+        return minor > 0;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.jakefinance.financeapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Running per-user totals keyed by (month, account id, category id, type). Maintained
+ * incrementally by TransactionService in the same database transaction as the
+ * underlying writes, so summary reads cost O(months x categories) instead of
+ * O(transactions). {@code yearMonth} is {@code yyyy * 100 + mm}; 0 means undated, and
+ * account / category id {@link #NONE} stands for a transaction without one.
+ */
+@Entity
+@Table(name = "monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_rollup_key",
+                columnNames = {"user_id", "year_month", "account_id", "category_id", "type"}))
+public class MonthlyRollup {
+
+    public static final int UNDATED = 0;
+    public static final long NONE = 0;
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "year_month", nullable = false)
+    private int yearMonth;
+
+    @Column(name = "account_id", nullable = false)
+    private long accountId;
+
+    @Column(name = "category_id", nullable = false)
+    private long categoryId;
+
+    @Column(nullable = false)
+    private String type;
+
+    // Minor units (see Money)
+    @Column(name = "total_minor", nullable = false)
+    private long totalMinor;
+
+    @Column(nullable = false)
+    private long count;
+
+    public MonthlyRollup() {}
+
+    // Key normalization; must stay in sync with the rebuild SQL in MonthlyRollupRepository
+    public static int yearMonthOf(LocalDate date) {
+        return date == null ? UNDATED : date.getYear() * 100 + date.getMonthValue();
+    }
+
+    public static Integer yearOf(Integer yearMonth) {
+        return (yearMonth == null || yearMonth == UNDATED) ? null : yearMonth / 100;
+    }
+
+    public static Integer monthOf(Integer yearMonth) {
+        return (yearMonth == null || yearMonth == UNDATED) ? null : yearMonth % 100;
+    }
+
+    public static long accountKey(Long accountId) {
+        return accountId == null ? NONE : accountId;
+    }
+
+    public static long categoryKey(Long categoryId) {
+        return categoryId == null ? NONE : categoryId;
+    }
+
+    public static String typeKey(TransactionType type) {
+        return type == null ? "" : type.code();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public int getYearMonth() { return yearMonth; }
+    public long getAccountId() { return accountId; }
+    public long getCategoryId() { return categoryId; }
+    public String getType() { return type; }
+    public long getTotalMinor() { return totalMinor; }
+    public long getCount() { return count; }
+}
@@ -0,0 +1,34 @@
+package com.jakefinance.financeapp.model;
+
+/**
+ * Per-month rollup. {@code month} is 1-12; undated transactions are reported
+ * with a null year and month.
+ */
+public class MonthlySummary {
+
+    private final Integer year;
+    private final Integer month;
+    private final long income;
+    private final long expenses;
+    private final long count;
+
+    // yearMonth is encoded as yyyy * 100 + mm (see MonthlyRollup); 0 means undated
+    public MonthlySummary(Integer yearMonth, Long income, Long expenses, Long count) {
+        this(MonthlyRollup.yearOf(yearMonth), MonthlyRollup.monthOf(yearMonth), income, expenses, count);
+    }
+
+    public MonthlySummary(Integer year, Integer month, Long income, Long expenses, Long count) {
+        this.year = year;
+        this.month = month;
+        this.income = income != null ? income : 0L;
+        this.expenses = expenses != null ? expenses : 0L;
+        this.count = count != null ? count : 0L;
+    }
+
+    public Integer getYear() { return year; }
+    public Integer getMonth() { return month; }
+    public Money getIncome() { return Money.ofMinor(income); }
+    public Money getExpenses() { return Money.ofMinor(expenses); }
+    public Money getBalance() { return Money.ofMinor(income - expenses); }
+    public long getCount() { return count; }
+}
@@ -0,0 +1,44 @@
+package com.jakefinance.financeapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An entry in the recommendation catalog (resources/catalog/products.json). Immutable.
+ */
+public class Product {
+
+    private final int id;
+    private final String name;
+    private final String description;
+    private final double price;
+    private final String image;
+    private final String url;
+
+    @JsonCreator
+    public Product(@JsonProperty("id") int id,
+                   @JsonProperty("name") String name,
+                   @JsonProperty("description") String description,
+                   @JsonProperty("price") double price,
+                   @JsonProperty("image") String image,
+                   @JsonProperty("url") String url) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.image = image;
+        this.url = url;
+    }
+
+    /** A copy under another id, used to pad short recommendation lists. */
+    public Product withId(int newId) {
+        return new Product(newId, name, description, price, image, url);
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public double getPrice() { return price; }
+    public String getImage() { return image; }
+    public String getUrl() { return url; }
+}
@@ -0,0 +1,36 @@
+package com.jakefinance.financeapp.model;
+
+import java.util.List;
+
+/**
+ * Body of {@code GET /api/sync}. {@code version} is what the client passes as
+ * {@code since} next time. When {@code full} is true the lists hold everything and the
+ * client should replace its copy rather than merge; otherwise they hold rows changed
+ * after {@code since}, plus the ids deleted since then.
+ */
+public class SyncResponse {
+
+    private final long version;
+    private final boolean full;
+    private final List<Transaction> transactions;
+    private final List<Goal> goals;
+    private final List<Long> deletedTransactions;
+    private final List<Long> deletedGoals;
+
+    public SyncResponse(long version, boolean full, List<Transaction> transactions, List<Goal> goals,
+                        List<Long> deletedTransactions, List<Long> deletedGoals) {
+        this.version = version;
+        this.full = full;
+        this.transactions = transactions;
+        this.goals = goals;
+        this.deletedTransactions = deletedTransactions;
+        this.deletedGoals = deletedGoals;
+    }
+
+    public long getVersion() { return version; }
+    public boolean isFull() { return full; }
+    public List<Transaction> getTransactions() { return transactions; }
+    public List<Goal> getGoals() { return goals; }
+    public List<Long> getDeletedTransactions() { return deletedTransactions; }
+    public List<Long> getDeletedGoals() { return deletedGoals; }
+}
@@ -0,0 +1,46 @@
+package com.jakefinance.financeapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Records that a transaction or goal was deleted, so delta sync can tell clients to drop
+ * it. Kept for {@code sync.tombstone-retention}; see {@link ChangeCounter#getPrunedSeq()}.
+ */
+@Entity
+@Table(name = "tombstone")
+public class Tombstone {
+
+    public static final String TRANSACTION = "transaction";
+    public static final String GOAL = "goal";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 20)
+    private String entity;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public Tombstone() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getEntity() { return entity; }
+    public Long getEntityId() { return entityId; }
+    public long getChangeSeq() { return changeSeq; }
+    public Instant getDeletedAt() { return deletedAt; }
+}
@@ -3,22 +3,71 @@ package com.jakefinance.financeapp.model;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+// Indexes are defined in the migrations (db/migration/V3__query_indexes.sql)
+@Table(uniqueConstraints = {
+        // Import dedup: re-uploading an overlapping bank export skips rows already imported
+        @UniqueConstraint(name = "uk_transaction_user_fingerprint", columnNames = {"user_id", "fingerprint"})
+})
 public class Transaction {
 
+    // Ids reserved per transaction_seq value (see V4__transaction_id_sequence.sql)
+    public static final int ID_BLOCK_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
     private String title;
-    private double amount;
-    private String type;
+
+    // Exact, in minor units (see Money); exposed to JSON as the decimal "amount"
+    @Column(name = "amount_minor")
+    @JsonIgnore
+    private long amountMinor;
+
+    private TransactionType type;
+
+    // Account and category are per-user rows referenced by id; JSON carries their names.
+    // A name set through setAccount / setCategory stays pending (in the transient field)
+    // until DimensionService resolves it to an id, which every write path does first.
+    @Column(name = "category_id")
+    @JsonIgnore
+    private Long categoryId;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false)
+    private Category categoryRef;
+
+    @Transient
     private String category;
+
+    @Column(name = "account_id")
+    @JsonIgnore
+    private Long accountId;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "account_id", insertable = false, updatable = false)
+    private Account accountRef;
+
+    @Transient
     private String account;
+
     private LocalDate date;
     private String notes;
 
+    // Import identity (see TransactionFingerprinter); null for rows entered by hand
+    @Column(length = 80)
+    @JsonIgnore
+    private String fingerprint;
+
+    // Delta sync: the user's change sequence value of the last write to this row (see ChangeCounter)
+    @Column(name = "change_seq")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long changeSeq;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -26,9 +75,9 @@ public class Transaction {
 
     public Transaction() {}
 
-    public Transaction(String title, double amount, String type, String category, String account, LocalDate date, String notes, User user) {
+    public Transaction(String title, Money amount, TransactionType type, String category, String account, LocalDate date, String notes, User user) {
         this.title = title;
-        this.amount = amount;
+        this.amountMinor = amount.minor();
         this.type = type;
         this.category = category;
         this.account = account;
@@ -40,22 +89,40 @@ public class Transaction {
     // Getters
     public Long getId() { return id; }
     public String getTitle() { return title; }
-    public Double getAmount() { return amount; }
-    public String getType() { return type; }
-    public String getCategory() { return category; }
-    public String getAccount() { return account; }
+    public Money getAmount() { return Money.ofMinor(amountMinor); }
+    public long getAmountMinor() { return amountMinor; }
+    public TransactionType getType() { return type; }
+    public String getCategory() { return categoryRef != null ? categoryRef.getName() : category; }
+    public Long getCategoryId() { return categoryId; }
+    public String getAccount() { return accountRef != null ? accountRef.getName() : account; }
+    public Long getAccountId() { return accountId; }
     public LocalDate getDate() { return date; }
     public String getNotes() { return notes; }
+    public String getFingerprint() { return fingerprint; }
+    public Long getChangeSeq() { return changeSeq; }
     public User getUser() { return user; }
 
     // Setters
     public void setTitle(String title) { this.title = title; }
-    public void setAmount(Double amount) { this.amount = amount; }
-    public void setType(String type) { this.type = type; }
-    public void setCategory(String category) { this.category = category; }
-    public void setAccount(String account) { this.account = account; }
+    public void setAmount(Money amount) { this.amountMinor = amount.minor(); }
+    public void setAmountMinor(long amountMinor) { this.amountMinor = amountMinor; }
+    public void setType(TransactionType type) { this.type = type; }
+    public void setCategory(String category) {
+        this.category = category;
+        this.categoryId = null;
+        this.categoryRef = null;
+    }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public void setAccount(String account) {
+        this.account = account;
+        this.accountId = null;
+        this.accountRef = null;
+    }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
     public void setDate(LocalDate date) { this.date = date; }
     public void setNotes(String notes) { this.notes = notes; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
     public void setUser(User user) { this.user = user; }
 
     @Override
@@ -63,10 +130,10 @@ public class Transaction {
         return "Transaction{" +
                 "id=" + id +
                 ", title='" + title + '\'' +
-                ", amount=" + amount +
+                ", amount=" + getAmount() +
                 ", type='" + type + '\'' +
-                ", category='" + category + '\'' +
-                ", account='" + account + '\'' +
+                ", category='" + getCategory() + '\'' +
+                ", account='" + getAccount() + '\'' +
                 ", date=" + date +
                 ", notes='" + notes + '\'' +
                 ", user=" + (user != null ? user.getEmail() : null) +
@@ -0,0 +1,52 @@
+package com.jakefinance.financeapp.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a {@code (date DESC, id DESC)} ordered transaction listing.
+ * Serialized as an opaque URL-safe token so clients just echo back {@code nextCursor}.
+ * A null date means the last row seen was undated (undated rows sort first).
+ */
+public class TransactionCursor {
+
+    private static final String NO_DATE = "-";
+
+    private final LocalDate date;
+    private final long id;
+
+    public TransactionCursor(LocalDate date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static TransactionCursor of(Transaction t) {
+        return new TransactionCursor(t.getDate(), t.getId());
+    }
+
+    public LocalDate getDate() { return date; }
+    public long getId() { return id; }
+
+    public String encode() {
+        String raw = (date != null ? date.toString() : NO_DATE) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String datePart = raw.substring(0, sep);
+            LocalDate date = NO_DATE.equals(datePart) ? null : LocalDate.parse(datePart);
+            return new TransactionCursor(date, Long.parseLong(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // Also bad Base64 and ids that aren't numbers (NumberFormatException)
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
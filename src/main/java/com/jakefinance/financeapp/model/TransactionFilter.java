@@ -0,0 +1,47 @@
+package com.jakefinance.financeapp.model;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Optional server-side filters for transaction listings. Every field is
+ * nullable; a null field means "don't filter on this". Bound straight from
+ * query parameters, e.g. {@code ?account=Checking&from=2024-01-01&minAmount=10}.
+ */
+public class TransactionFilter {
+
+    private String account;
+    private String category;
+    private String type;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public TransactionFilter() {}
+
+    // Getters
+    public String getAccount() { return account; }
+    public String getCategory() { return category; }
+    public String getType() { return type; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public BigDecimal getMinAmount() { return minAmount; }
+    public BigDecimal getMaxAmount() { return maxAmount; }
+
+    // Setters
+    public void setAccount(String account) { this.account = account; }
+    public void setCategory(String category) { this.category = category; }
+    public void setType(String type) { this.type = type; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public void setTo(LocalDate to) { this.to = to; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+}
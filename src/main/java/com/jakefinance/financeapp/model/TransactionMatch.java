@@ -0,0 +1,40 @@
+package com.jakefinance.financeapp.model;
+
+import java.time.LocalDate;
+
+/**
+ * Which of a user's transactions a filter-based batch operation applies to. All set
+ * fields must match; {@code titleLike} is a case-insensitive SQL LIKE pattern
+ * ({@code %} and {@code _} wildcards), the others are exact (account/category ignore case).
+ */
+public class TransactionMatch {
+
+    private String titleLike;
+    private String account;
+    private String category;
+    private TransactionType type;
+    private LocalDate from;
+    private LocalDate to;
+
+    public TransactionMatch() {}
+
+    public boolean isEmpty() {
+        return titleLike == null && account == null && category == null && type == null && from == null && to == null;
+    }
+
+    // Getters
+    public String getTitleLike() { return titleLike; }
+    public String getAccount() { return account; }
+    public String getCategory() { return category; }
+    public TransactionType getType() { return type; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+
+    // Setters
+    public void setTitleLike(String titleLike) { this.titleLike = titleLike; }
+    public void setAccount(String account) { this.account = account; }
+    public void setCategory(String category) { this.category = category; }
+    public void setType(TransactionType type) { this.type = type; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public void setTo(LocalDate to) { this.to = to; }
+}
@@ -0,0 +1,24 @@
+package com.jakefinance.financeapp.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated transaction listing. {@code nextCursor} is null
+ * once the last page has been reached.
+ */
+public class TransactionPage {
+
+    private final List<Transaction> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public TransactionPage(List<Transaction> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<Transaction> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+}
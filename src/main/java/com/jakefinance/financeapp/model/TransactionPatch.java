@@ -0,0 +1,58 @@
+package com.jakefinance.financeapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
+
+/**
+ * Transaction fields as sent in a batch operation. Unlike {@link Transaction}, every
+ * field is nullable, so an update can tell "not sent" apart from zero.
+ */
+public class TransactionPatch {
+
+    private String title;
+    private Money amount;
+    private TransactionType type;
+    private String category;
+    private String account;
+
+    // Ids of the named category / account, filled in by DimensionService
+    @JsonIgnore
+    private Long categoryId;
+    @JsonIgnore
+    private Long accountId;
+    private LocalDate date;
+    private String notes;
+
+    public TransactionPatch() {}
+
+    /** The fields as a (detached, ownerless) Transaction; amount must be set and names resolved. */
+    public Transaction toTransaction() {
+        Transaction t = new Transaction(title, amount, type, category, account, date, notes, null);
+        t.setCategoryId(categoryId);
+        t.setAccountId(accountId);
+        return t;
+    }
+
+    // Getters
+    public String getTitle() { return title; }
+    public Money getAmount() { return amount; }
+    public TransactionType getType() { return type; }
+    public String getCategory() { return category; }
+    public Long getCategoryId() { return categoryId; }
+    public String getAccount() { return account; }
+    public Long getAccountId() { return accountId; }
+    public LocalDate getDate() { return date; }
+    public String getNotes() { return notes; }
+
+    // Setters
+    public void setTitle(String title) { this.title = title; }
+    public void setAmount(Money amount) { this.amount = amount; }
+    public void setType(TransactionType type) { this.type = type; }
+    public void setCategory(String category) { this.category = category; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public void setAccount(String account) { this.account = account; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public void setNotes(String notes) { this.notes = notes; }
+}
@@ -0,0 +1,24 @@
+package com.jakefinance.financeapp.model;
+
+/**
+ * Income / expense totals for a user over an optional date range and account.
+ * Produced by a single aggregate query; no transaction rows are loaded. Sums arrive
+ * in minor units (see Money).
+ */
+public class TransactionTotals {
+
+    private final long income;
+    private final long expenses;
+    private final long count;
+
+    public TransactionTotals(Long income, Long expenses, Long count) {
+        this.income = income != null ? income : 0L;
+        this.expenses = expenses != null ? expenses : 0L;
+        this.count = count != null ? count : 0L;
+    }
+
+    public Money getIncome() { return Money.ofMinor(income); }
+    public Money getExpenses() { return Money.ofMinor(expenses); }
+    public Money getBalance() { return Money.ofMinor(income - expenses); }
+    public long getCount() { return count; }
+}
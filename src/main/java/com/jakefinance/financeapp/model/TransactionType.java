@@ -0,0 +1,42 @@
+package com.jakefinance.financeapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Whether a transaction is money in or money out. Stored and sent as its lower-case
+ * {@link #code()} ("income" / "expense"); see TransactionTypeConverter.
+ */
+public enum TransactionType {
+
+    INCOME("income"),
+    EXPENSE("expense");
+
+    private final String code;
+
+    TransactionType(String code) {
+        this.code = code;
+    }
+
+    @JsonValue
+    public String code() {
+        return code;
+    }
+
+    /** Parses a code, ignoring case and surrounding whitespace; null stays null. */
+    @JsonCreator
+    public static TransactionType parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String code = value.trim().toLowerCase(Locale.ROOT);
+        for (TransactionType type : values()) {
+            if (type.code.equals(code)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Type must be 'income' or 'expense'");
+    }
+}
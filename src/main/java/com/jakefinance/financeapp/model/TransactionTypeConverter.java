@@ -0,0 +1,22 @@
+package com.jakefinance.financeapp.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Keeps the type column holding the same "income" / "expense" text as before the enum,
+ * which the native rollup SQL compares against.
+ */
+@Converter(autoApply = true)
+public class TransactionTypeConverter implements AttributeConverter<TransactionType, String> {
+
+    @Override
+    public String convertToDatabaseColumn(TransactionType type) {
+        return type == null ? null : type.code();
+    }
+
+    @Override
+    public TransactionType convertToEntityAttribute(String code) {
+        return TransactionType.parse(code);
+    }
+}
@@ -0,0 +1,81 @@
+package com.jakefinance.financeapp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Name to id lookups for the per-user account and category tables, creating missing
+ * rows. Plain JDBC, like the other write-path repositories, so creating a row doesn't
+ * evict Hibernate's second-level cache.
+ */
+@Repository
+public class DimensionRepository {
+
+    public static final String ACCOUNT = "account";
+    public static final String CATEGORY = "category";
+
+    private static final Set<String> TABLES = Set.of(ACCOUNT, CATEGORY);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DimensionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ids of the user's rows in {@code table} for the given names, creating the ones that
+     * don't exist yet, keyed by the names as given. Names match ignoring case and surrounding
+     * blanks (uk_*_user_name is on lower(name)); a new row takes the trimmed name as first
+     * given. Blank names get no id. Concurrent creators of the same name get the same row.
+     */
+    public Map<String, Long> idsFor(String table, Long userId, Collection<String> names) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unknown dimension table " + table);
+        }
+        Map<String, Long> ids = new HashMap<>(names.size() * 2);
+        if (names.isEmpty()) {
+            return ids;
+        }
+        select(table, userId, names, ids);
+        if (ids.size() < names.size()) {
+            String[] missing = names.stream().filter(name -> !ids.containsKey(name)).toArray(String[]::new);
+            jdbcTemplate.execute((Connection con) -> {
+                try (PreparedStatement ps = con.prepareStatement("insert into " + table + " (user_id, name)"
+                        + " select distinct on (lower(btrim(n))) ?, btrim(n) from unnest(?::text[]) with ordinality as u(n, i)"
+                        + " where btrim(n) <> '' order by lower(btrim(n)), i"
+                        + " on conflict (user_id, lower(name)) do nothing")) {
+                    ps.setLong(1, userId);
+                    ps.setArray(2, con.createArrayOf("text", missing));
+                    return ps.executeUpdate();
+                }
+            });
+            select(table, userId, List.of(missing), ids);
+        }
+        return ids;
+    }
+
+    private void select(String table, Long userId, Collection<String> names, Map<String, Long> ids) {
+        jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement("select n, d.id from unnest(?::text[]) as u(n)"
+                    + " join " + table + " d on d.user_id = ? and lower(d.name) = lower(btrim(n))")) {
+                ps.setArray(1, con.createArrayOf("text", names.toArray()));
+                ps.setLong(2, userId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.put(rs.getString(1), rs.getLong(2));
+                    }
+                }
+                return null;
+            }
+        });
+    }
+}
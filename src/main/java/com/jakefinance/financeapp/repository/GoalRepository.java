@@ -1,13 +1,31 @@
 package com.jakefinance.financeapp.repository;
 
 import com.jakefinance.financeapp.model.Goal;
-import com.jakefinance.financeapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface GoalRepository extends JpaRepository<Goal, Long> {
-    List<Goal> findByUser(User user);
-    List<Goal> findByUserAndCompleted(User user, Boolean completed);
-}
+    // Explicit queries: derived findByUserId... would join users just to compare the id.
+    // Results go in the query cache; Hibernate discards them whenever the goals table is written.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select g from Goal g where g.user.id = :userId")
+    List<Goal> findByUserId(Long userId);
+
+    // Literal false rather than a parameter, so a generic prepared plan can still use the
+    // partial index on open goals
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select g from Goal g where g.user.id = :userId and g.completed = false")
+    List<Goal> findOpenByUserId(Long userId);
 
+    @Query("select g from Goal g where g.user.id = :userId and g.id in :ids")
+    List<Goal> findOwned(Long userId, Collection<Long> ids);
+
+    @Query("select g from Goal g where g.user.id = :userId and g.changeSeq > :since order by g.changeSeq, g.id")
+    List<Goal> findChangedSince(Long userId, long since);
+}
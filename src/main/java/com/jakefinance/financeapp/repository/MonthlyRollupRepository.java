@@ -0,0 +1,97 @@
+package com.jakefinance.financeapp.repository;
+
+import com.jakefinance.financeapp.model.AccountSummary;
+import com.jakefinance.financeapp.model.CategorySummary;
+import com.jakefinance.financeapp.model.MonthlyRollup;
+import com.jakefinance.financeapp.model.MonthlySummary;
+import com.jakefinance.financeapp.model.TransactionTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    // Serializes rollup maintenance per user for the rest of the current transaction,
+    // so a rebuild never interleaves with an incremental update.
+    @Query(value = "select pg_advisory_xact_lock(:userId)", nativeQuery = true)
+    Object lockUser(Long userId);
+
+    @Modifying
+    @Query(value = "insert into monthly_rollup (user_id, year_month, account_id, category_id, type, total_minor, count)"
+            + " values (:userId, :yearMonth, :accountId, :categoryId, :type, :totalMinor, :count)"
+            + " on conflict (user_id, year_month, account_id, category_id, type) do update"
+            + " set total_minor = monthly_rollup.total_minor + excluded.total_minor, count = monthly_rollup.count + excluded.count",
+            nativeQuery = true)
+    int applyDelta(Long userId, int yearMonth, long accountId, long categoryId, String type, long totalMinor, long count);
+
+    @Modifying
+    @Query(value = "delete from monthly_rollup where user_id = :userId", nativeQuery = true)
+    int deleteForUser(Long userId);
+
+    // Expected rollup rows computed from the raw table; key expressions mirror MonthlyRollup.*Key
+    String EXPECTED = "select user_id,"
+            + " coalesce(cast(extract(year from date) as int) * 100 + cast(extract(month from date) as int), 0) as year_month,"
+            + " coalesce(account_id, 0) as account_id, coalesce(category_id, 0) as category_id,"
+            + " coalesce(type, '') as type, sum(amount_minor) as total_minor, count(*) as count"
+            + " from transaction where user_id = :userId group by 1, 2, 3, 4, 5";
+
+    // Also used by the load-test data generator, which fills the rollup the same way
+    String REBUILD = "insert into monthly_rollup (user_id, year_month, account_id, category_id, type, total_minor, count) "
+            + EXPECTED;
+
+    @Modifying
+    @Query(value = REBUILD, nativeQuery = true)
+    int rebuildForUser(Long userId);
+
+    /**
+     * Number of rollup keys whose stored total/count disagree with the raw table.
+     */
+    @Query(value = "with expected as (" + EXPECTED + ")"
+            + " select count(*) from expected e full outer join"
+            + " (select * from monthly_rollup where user_id = :userId and count <> 0) r"
+            + " on r.year_month = e.year_month and r.account_id = e.account_id"
+            + " and r.category_id = e.category_id and r.type = e.type"
+            + " where e.year_month is null or r.year_month is null"
+            + " or r.count <> e.count or r.total_minor <> e.total_minor",
+            nativeQuery = true)
+    long countDrift(Long userId);
+
+    // Summary reads. Same shapes as the TransactionRepository summaries, restricted to
+    // whole months ([fromYm, toYm], both nullable). Undated rows (yearMonth 0) only match
+    // an unbounded range and sort last, and the NONE account / category ids find no row
+    // in the joins, so results line up with the raw queries. Categories are grouped by
+    // name, as "Uncategorized" can be both a real category and the label for none.
+    String INCOME = "sum(case when r.type = 'income' then r.totalMinor else 0L end)";
+    String EXPENSES = "sum(case when r.type = 'expense' then r.totalMinor else 0L end)";
+    String SCOPE = " from MonthlyRollup r left join Account a on a.id = r.accountId"
+            + " left join Category c on c.id = r.categoryId where r.userId = :userId"
+            + " and (cast(:fromYm as Integer) is null or r.yearMonth >= :fromYm)"
+            + " and (cast(:toYm as Integer) is null or (r.yearMonth <= :toYm and r.yearMonth <> 0))"
+            + " and (cast(:account as String) is null or lower(a.name) = lower(cast(:account as String)))";
+    String UNDATED_LAST = "case when r.yearMonth = 0 then 1 else 0 end";
+    String CATEGORY = "coalesce(c.name, '" + MonthlyRollup.UNCATEGORIZED + "')";
+    String MODEL = "com.jakefinance.financeapp.model.";
+
+    @Query("select new " + MODEL + "TransactionTotals(" + INCOME + ", " + EXPENSES + ", sum(r.count))" + SCOPE)
+    TransactionTotals summarize(Long userId, Integer fromYm, Integer toYm, String account);
+
+    @Query("select new " + MODEL + "CategorySummary(" + CATEGORY + ", " + INCOME + ", " + EXPENSES + ", sum(r.count))"
+            + SCOPE + " group by " + CATEGORY + " having sum(r.count) > 0 order by 1")
+    List<CategorySummary> summarizeByCategory(Long userId, Integer fromYm, Integer toYm, String account);
+
+    @Query("select new " + MODEL + "CategorySummary(r.yearMonth, " + CATEGORY + ", " + INCOME + ", " + EXPENSES + ", sum(r.count))"
+            + SCOPE + " group by r.yearMonth, " + CATEGORY + " having sum(r.count) > 0"
+            + " order by " + UNDATED_LAST + ", r.yearMonth, 2")
+    List<CategorySummary> summarizeByMonthAndCategory(Long userId, Integer fromYm, Integer toYm, String account);
+
+    @Query("select new " + MODEL + "MonthlySummary(r.yearMonth, " + INCOME + ", " + EXPENSES + ", sum(r.count))"
+            + SCOPE + " group by r.yearMonth having sum(r.count) > 0"
+            + " order by " + UNDATED_LAST + ", r.yearMonth")
+    List<MonthlySummary> summarizeByMonth(Long userId, Integer fromYm, Integer toYm, String account);
+
+    @Query("select new " + MODEL + "AccountSummary(a.name, " + INCOME + ", " + EXPENSES + ", sum(r.count))"
+            + SCOPE + " group by r.accountId, a.name having sum(r.count) > 0 order by 1")
+    List<AccountSummary> summarizeByAccount(Long userId, Integer fromYm, Integer toYm, String account);
+}
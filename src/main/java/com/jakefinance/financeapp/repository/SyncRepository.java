@@ -0,0 +1,79 @@
+package com.jakefinance.financeapp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The change_counter and tombstone tables behind delta sync. Plain JDBC so the writes,
+ * which happen on every change, don't make Hibernate evict its second-level cache the way
+ * native bulk statements through JPA do.
+ */
+@Repository
+public class SyncRepository {
+
+    // The row lock taken here is held until commit; see ChangeCounter
+    private static final String NEXT_SEQ = "insert into change_counter (user_id, seq, pruned_seq) values (?, 1, 0)"
+            + " on conflict (user_id) do update set seq = change_counter.seq + 1 returning seq";
+
+    private static final String COUNTER = "select seq, pruned_seq from change_counter where user_id = ?";
+
+    private static final String INSERT_TOMBSTONES = "insert into tombstone (user_id, entity, entity_id, change_seq, deleted_at)"
+            + " select ?, ?, id, ?, ? from unnest(?::bigint[]) as d(id)";
+
+    private static final String DELETED_SINCE = "select entity_id from tombstone"
+            + " where user_id = ? and entity = ? and change_seq > ? order by change_seq, entity_id";
+
+    // Deletes expired tombstones and raises each affected user's pruned_seq in one statement
+    private static final String PRUNE = "with pruned as (delete from tombstone where deleted_at < ? returning user_id, change_seq)"
+            + " update change_counter c set pruned_seq = greatest(c.pruned_seq, p.max_seq)"
+            + " from (select user_id, max(change_seq) as max_seq from pruned group by user_id) p"
+            + " where c.user_id = p.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SyncRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long nextSeq(Long userId) {
+        return jdbcTemplate.queryForObject(NEXT_SEQ, Long.class, userId);
+    }
+
+    /** {seq, prunedSeq} for the user; {0, 0} if they have never written anything. */
+    public long[] counter(Long userId) {
+        List<long[]> rows = jdbcTemplate.query(COUNTER, (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)}, userId);
+        return rows.isEmpty() ? new long[]{0, 0} : rows.get(0);
+    }
+
+    public void addTombstones(Long userId, String entity, Collection<Long> ids, long seq) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_TOMBSTONES)) {
+                ps.setLong(1, userId);
+                ps.setString(2, entity);
+                ps.setLong(3, seq);
+                ps.setTimestamp(4, Timestamp.from(Instant.now()));
+                ps.setArray(5, con.createArrayOf("bigint", ids.toArray()));
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    public List<Long> deletedSince(Long userId, String entity, long since) {
+        return jdbcTemplate.queryForList(DELETED_SINCE, Long.class, userId, entity, since);
+    }
+
+    /** Removes tombstones older than {@code cutoff}; returns the number of users affected. */
+    public int pruneTombstones(Instant cutoff) {
+        return jdbcTemplate.update(PRUNE, Timestamp.from(cutoff));
+    }
+}
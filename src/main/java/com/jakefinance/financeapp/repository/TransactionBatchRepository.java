@@ -0,0 +1,288 @@
+package com.jakefinance.financeapp.repository;
+
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionMatch;
+import com.jakefinance.financeapp.model.TransactionPatch;
+import com.jakefinance.financeapp.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for bulk paths. Going through JPA would keep every entity in the
+ * persistence context and send at best one batched INSERT per row; here a whole chunk
+ * goes out as a single statement. Ids are reserved from transaction_seq in the same
+ * blocks Hibernate uses (see {@link #allocateIds}).
+ */
+@Repository
+public class TransactionBatchRepository {
+
+    // One multi-row insert per chunk: each column is bound as an array and unnest()ed
+    // back into rows. Rows whose fingerprint the user already has are skipped by the
+    // unique constraint, and RETURNING tells us exactly which ones went in.
+    // The ids of skipped rows simply go unused.
+    private static final String INSERT_NEW = "insert into transaction"
+            + " (id, title, amount_minor, type, category_id, account_id, date, notes, fingerprint, user_id, change_seq)"
+            + " select r.id, r.title, r.amount, r.type, r.category_id, r.account_id, r.date, r.notes, r.fingerprint, ?, ?"
+            + " from unnest(?::bigint[], ?::text[], ?::bigint[], ?::text[], ?::bigint[], ?::bigint[], ?::date[], ?::text[], ?::text[])"
+            + " as r(id, title, amount, type, category_id, account_id, date, notes, fingerprint)"
+            + " on conflict (user_id, fingerprint) do nothing"
+            + " returning fingerprint, id";
+
+    // Ownership is part of the WHERE clause; RETURNING hands back what the rollup needs
+    private static final String DELETE_OWNED = "delete from transaction where user_id = ? and id = any(?)"
+            + " returning id, amount_minor, type, category_id, account_id, date";
+
+    private static final String ALLOCATE_ID_BLOCKS = "select nextval('transaction_seq') from generate_series(1, ?)";
+
+    private static final String INSERT_WITH_IDS = "insert into transaction"
+            + " (id, title, amount_minor, type, category_id, account_id, date, notes, user_id, change_seq)"
+            + " select r.id, r.title, r.amount, r.type, r.category_id, r.account_id, r.date, r.notes, ?, ?"
+            + " from unnest(?::bigint[], ?::text[], ?::bigint[], ?::text[], ?::bigint[], ?::bigint[], ?::date[], ?::text[])"
+            + " as r(id, title, amount, type, category_id, account_id, date, notes)";
+
+    // Partial update of many rows in one statement: null fields keep their value. The
+    // self-join on o reads the pre-update row, so the rollup gets both old and new values.
+    private static final String UPDATE_OWNED = "update transaction t set"
+            + " title = coalesce(u.title, t.title), amount_minor = coalesce(u.amount, t.amount_minor),"
+            + " type = coalesce(u.type, t.type), category_id = coalesce(u.category_id, t.category_id),"
+            + " account_id = coalesce(u.account_id, t.account_id), date = coalesce(u.date, t.date),"
+            + " notes = coalesce(u.notes, t.notes), change_seq = ?"
+            + " from unnest(?::bigint[], ?::text[], ?::bigint[], ?::text[], ?::bigint[], ?::bigint[], ?::date[], ?::text[])"
+            + " as u(id, title, amount, type, category_id, account_id, date, notes), transaction o"
+            + " where t.id = u.id and o.id = t.id and t.user_id = ?"
+            + " returning t.id, " + oldAndNew();
+
+    private static String oldAndNew() {
+        return "o.amount_minor, o.type, o.category_id, o.account_id, o.date,"
+                + " t.amount_minor, t.type, t.category_id, t.account_id, t.date";
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts {@code transactions} for the user, skipping any whose fingerprint is
+     * already taken, stamping them with change sequence {@code seq}. Account and category
+     * must already be resolved to ids. Returns the rows actually inserted, as fingerprint to id.
+     */
+    public Map<String, Long> insertNew(Long userId, List<Transaction> transactions, long seq) {
+        int n = transactions.size();
+        String[] titles = new String[n], types = new String[n], notes = new String[n], fingerprints = new String[n];
+        Long[] amounts = new Long[n], categories = new Long[n], accounts = new Long[n];
+        Date[] dates = new Date[n];
+        for (int i = 0; i < n; i++) {
+            Transaction t = transactions.get(i);
+            titles[i] = t.getTitle();
+            amounts[i] = t.getAmountMinor();
+            types[i] = t.getType() != null ? t.getType().code() : null;
+            categories[i] = t.getCategoryId();
+            accounts[i] = t.getAccountId();
+            dates[i] = t.getDate() != null ? Date.valueOf(t.getDate()) : null;
+            notes[i] = t.getNotes();
+            fingerprints[i] = t.getFingerprint();
+        }
+
+        List<Long> ids = allocateIds(n);
+        return jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_NEW)) {
+                ps.setLong(1, userId);
+                ps.setLong(2, seq);
+                ps.setArray(3, con.createArrayOf("bigint", ids.toArray()));
+                ps.setArray(4, con.createArrayOf("text", titles));
+                ps.setArray(5, con.createArrayOf("bigint", amounts));
+                ps.setArray(6, con.createArrayOf("text", types));
+                ps.setArray(7, con.createArrayOf("bigint", categories));
+                ps.setArray(8, con.createArrayOf("bigint", accounts));
+                ps.setArray(9, con.createArrayOf("date", dates));
+                ps.setArray(10, con.createArrayOf("text", notes));
+                ps.setArray(11, con.createArrayOf("text", fingerprints));
+                Map<String, Long> inserted = new HashMap<>(n * 2);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        inserted.put(rs.getString(1), rs.getLong(2));
+                    }
+                }
+                return inserted;
+            }
+        });
+    }
+
+    /**
+     * A row changed by a batch write, with the fields the rollup tracks (amount, type,
+     * category id, account id, date) before and after.
+     */
+    public record Change(long id, Transaction before, Transaction after) {}
+
+    /**
+     * Deletes those of {@code ids} that belong to the user in one statement and returns the
+     * deleted rows by id (amount, type, category id, account id and date populated). Ids that
+     * don't exist or belong to someone else are silently ignored.
+     */
+    public Map<Long, Transaction> deleteOwned(Long userId, Collection<Long> ids) {
+        return jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(DELETE_OWNED)) {
+                ps.setLong(1, userId);
+                ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+                Map<Long, Transaction> deleted = new LinkedHashMap<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        deleted.put(rs.getLong(1), readRollupFields(rs, 2));
+                    }
+                }
+                return deleted;
+            }
+        });
+    }
+
+    /**
+     * Reserves {@code count} ids, so callers know ids before inserting. Each transaction_seq
+     * value v stands for the block v - ID_BLOCK_SIZE + 1 .. v, as with Hibernate's pooled
+     * optimizer; the unused rest of the last block is skipped.
+     */
+    public List<Long> allocateIds(int count) {
+        int blocks = (count + Transaction.ID_BLOCK_SIZE - 1) / Transaction.ID_BLOCK_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        for (long last : jdbcTemplate.queryForList(ALLOCATE_ID_BLOCKS, Long.class, blocks)) {
+            for (long id = last - Transaction.ID_BLOCK_SIZE + 1; id <= last && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /** Inserts {@code transactions} under the given pre-allocated ids (see {@link #allocateIds}). */
+    public void insertWithIds(Long userId, List<TransactionPatch> transactions, List<Long> ids, long seq) {
+        Object[][] columns = columns(transactions);
+        jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_WITH_IDS)) {
+                ps.setLong(1, userId);
+                ps.setLong(2, seq);
+                ps.setArray(3, con.createArrayOf("bigint", ids.toArray()));
+                bindColumns(con, ps, 4, columns);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Applies each patch (non-null fields only) to the row with the matching id, if the user
+     * owns it. Ids must be distinct. Returns the rows actually changed.
+     */
+    public List<Change> updateOwned(Long userId, List<Long> ids, List<TransactionPatch> patches, long seq) {
+        Object[][] columns = columns(patches);
+        return jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(UPDATE_OWNED)) {
+                ps.setLong(1, seq);
+                ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+                bindColumns(con, ps, 3, columns);
+                ps.setLong(10, userId);
+                return readChanges(ps);
+            }
+        });
+    }
+
+    /**
+     * Sets category {@code categoryId} on every one of the user's transactions that matches
+     * and doesn't already have it. Returns the rows changed.
+     */
+    public List<Change> recategorize(Long userId, TransactionMatch match, long categoryId, long seq) {
+        StringBuilder sql = new StringBuilder("update transaction t set category_id = ?, change_seq = ? from transaction o"
+                + " where o.id = t.id and t.user_id = ? and t.category_id is distinct from ?");
+        List<Object> params = new ArrayList<>(List.of(categoryId, seq, userId, categoryId));
+        if (match.getTitleLike() != null) {
+            sql.append(" and t.title ilike ?");
+            params.add(match.getTitleLike());
+        }
+        if (match.getAccount() != null) {
+            sql.append(" and t.account_id in (select id from account where user_id = t.user_id and lower(name) = lower(btrim(?)))");
+            params.add(match.getAccount());
+        }
+        if (match.getCategory() != null) {
+            sql.append(" and t.category_id in (select id from category where user_id = t.user_id and lower(name) = lower(btrim(?)))");
+            params.add(match.getCategory());
+        }
+        if (match.getType() != null) {
+            sql.append(" and t.type = ?");
+            params.add(match.getType().code());
+        }
+        if (match.getFrom() != null) {
+            sql.append(" and t.date >= ?");
+            params.add(Date.valueOf(match.getFrom()));
+        }
+        if (match.getTo() != null) {
+            sql.append(" and t.date <= ?");
+            params.add(Date.valueOf(match.getTo()));
+        }
+        sql.append(" returning t.id, ").append(oldAndNew());
+
+        return jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                return readChanges(ps);
+            }
+        });
+    }
+
+    // title, amount, type, category id, account id, date, notes as parallel arrays
+    private static Object[][] columns(List<TransactionPatch> transactions) {
+        int n = transactions.size();
+        Object[][] columns = {new String[n], new Long[n], new String[n], new Long[n], new Long[n], new Date[n], new String[n]};
+        for (int i = 0; i < n; i++) {
+            TransactionPatch t = transactions.get(i);
+            columns[0][i] = t.getTitle();
+            columns[1][i] = t.getAmount() != null ? t.getAmount().minor() : null;
+            columns[2][i] = t.getType() != null ? t.getType().code() : null;
+            columns[3][i] = t.getCategoryId();
+            columns[4][i] = t.getAccountId();
+            columns[5][i] = t.getDate() != null ? Date.valueOf(t.getDate()) : null;
+            columns[6][i] = t.getNotes();
+        }
+        return columns;
+    }
+
+    private static void bindColumns(Connection con, PreparedStatement ps, int first, Object[][] columns) throws SQLException {
+        String[] types = {"text", "bigint", "text", "bigint", "bigint", "date", "text"};
+        for (int i = 0; i < columns.length; i++) {
+            ps.setArray(first + i, con.createArrayOf(types[i], columns[i]));
+        }
+    }
+
+    private static List<Change> readChanges(PreparedStatement ps) throws SQLException {
+        List<Change> changes = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                changes.add(new Change(rs.getLong(1), readRollupFields(rs, 2), readRollupFields(rs, 7)));
+            }
+        }
+        return changes;
+    }
+
+    // amount, type, category id, account id, date starting at column {@code first}
+    private static Transaction readRollupFields(ResultSet rs, int first) throws SQLException {
+        Transaction t = new Transaction();
+        t.setAmountMinor(rs.getLong(first));
+        t.setType(TransactionType.parse(rs.getString(first + 1)));
+        t.setCategoryId(rs.getObject(first + 2, Long.class));
+        t.setAccountId(rs.getObject(first + 3, Long.class));
+        Date date = rs.getDate(first + 4);
+        t.setDate(date != null ? date.toLocalDate() : null);
+        return t;
+    }
+}
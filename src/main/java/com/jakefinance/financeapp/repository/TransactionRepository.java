@@ -1,11 +1,87 @@
 package com.jakefinance.financeapp.repository;
 
+import com.jakefinance.financeapp.model.AccountSummary;
+import com.jakefinance.financeapp.model.CategorySummary;
+import com.jakefinance.financeapp.model.MonthlyRollup;
+import com.jakefinance.financeapp.model.MonthlySummary;
 import com.jakefinance.financeapp.model.Transaction;
-import com.jakefinance.financeapp.model.User;
+import com.jakefinance.financeapp.model.TransactionTotals;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByUser(User user);
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
+    // Explicit query: the derived findByUserId would join users just to compare the id
+    @Query("select t from Transaction t where t.user.id = :userId")
+    List<Transaction> findByUserId(Long userId);
+
+    @Query("select t from Transaction t where t.user.id = :userId and t.id in :ids")
+    List<Transaction> findOwned(Long userId, Collection<Long> ids);
+
+    @Query("select t.id from Transaction t where t.user.id = :userId and t.id in :ids")
+    List<Long> findOwnedIds(Long userId, Collection<Long> ids);
+
+    @Query("select t from Transaction t where t.user.id = :userId and t.changeSeq > :since order by t.changeSeq, t.id")
+    List<Transaction> findChangedSince(Long userId, long since);
+
+    /**
+     * Chronological cursor over a user's transactions for export. Must be consumed inside a
+     * transaction; rows are fetched from Postgres {@code fetchSize} at a time instead of all at once.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t where t.user.id = :userId"
+            + " and (cast(:from as LocalDate) is null or t.date >= :from)"
+            + " and (cast(:to as LocalDate) is null or t.date <= :to)"
+            + " order by t.date, t.id")
+    Stream<Transaction> streamForExport(Long userId, LocalDate from, LocalDate to);
+
+    // Shared pieces of the summary queries below. Aggregation happens in the database;
+    // only the grouped rows come back. The casts give Postgres a type for optional
+    // parameters that are bound as null.
+    String MODEL = "com.jakefinance.financeapp.model.";
+    String INCOME = "sum(case when t.type = " + MODEL + "TransactionType.INCOME then t.amountMinor else 0L end)";
+    String EXPENSES = "sum(case when t.type = " + MODEL + "TransactionType.EXPENSE then t.amountMinor else 0L end)";
+    String CATEGORY = "coalesce(c.name, '" + MonthlyRollup.UNCATEGORIZED + "')";
+    String SUMMARY_SCOPE = " from Transaction t left join t.accountRef a left join t.categoryRef c where t.user.id = :userId"
+            + " and (cast(:from as LocalDate) is null or t.date >= :from)"
+            + " and (cast(:to as LocalDate) is null or t.date <= :to)"
+            + " and (cast(:account as String) is null or lower(a.name) = lower(cast(:account as String)))";
+
+    @Query("select new " + MODEL + "TransactionTotals(" + INCOME + ", " + EXPENSES + ", count(t))"
+            + SUMMARY_SCOPE)
+    TransactionTotals summarize(Long userId, LocalDate from, LocalDate to, String account);
+
+    @Query("select new " + MODEL + "CategorySummary(" + CATEGORY + ", "
+            + INCOME + ", " + EXPENSES + ", count(t))"
+            + SUMMARY_SCOPE
+            + " group by " + CATEGORY + " order by 1")
+    List<CategorySummary> summarizeByCategory(Long userId, LocalDate from, LocalDate to, String account);
+
+    @Query("select new " + MODEL + "CategorySummary(year(t.date), month(t.date), " + CATEGORY + ", "
+            + INCOME + ", " + EXPENSES + ", count(t))"
+            + SUMMARY_SCOPE
+            + " group by year(t.date), month(t.date), " + CATEGORY + " order by 1, 2, 3")
+    List<CategorySummary> summarizeByMonthAndCategory(Long userId, LocalDate from, LocalDate to, String account);
+
+    @Query("select new " + MODEL + "MonthlySummary(year(t.date), month(t.date), "
+            + INCOME + ", " + EXPENSES + ", count(t))"
+            + SUMMARY_SCOPE
+            + " group by year(t.date), month(t.date) order by 1, 2")
+    List<MonthlySummary> summarizeByMonth(Long userId, LocalDate from, LocalDate to, String account);
+
+    @Query("select new " + MODEL + "AccountSummary(a.name, " + INCOME + ", " + EXPENSES + ", count(t))"
+            + SUMMARY_SCOPE
+            + " group by t.accountId, a.name order by 1")
+    List<AccountSummary> summarizeByAccount(Long userId, LocalDate from, LocalDate to, String account);
 }
@@ -0,0 +1,88 @@
+package com.jakefinance.financeapp.repository;
+
+import com.jakefinance.financeapp.model.Account;
+import com.jakefinance.financeapp.model.Category;
+import com.jakefinance.financeapp.model.Money;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionCursor;
+import com.jakefinance.financeapp.model.TransactionFilter;
+import com.jakefinance.financeapp.model.TransactionType;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria building blocks for filtered / keyset-paginated transaction queries.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {}
+
+    public static Specification<Transaction> belongsTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Transaction> matching(TransactionFilter filter) {
+        return (root, query, cb) -> {
+            if (filter == null) {
+                return cb.and();
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            // The dimension's own user_id is matched too: Postgres then looks the name up in the
+            // user's few rows (uk_*_user_name) instead of scanning every user's accounts / categories
+            if (hasText(filter.getAccount())) {
+                Join<Transaction, Account> account = root.join("accountRef");
+                predicates.add(cb.equal(account.get("userId"), root.get("user").get("id")));
+                predicates.add(cb.equal(cb.lower(account.get("name")), filter.getAccount().trim().toLowerCase()));
+            }
+            if (hasText(filter.getCategory())) {
+                Join<Transaction, Category> category = root.join("categoryRef");
+                predicates.add(cb.equal(category.get("userId"), root.get("user").get("id")));
+                predicates.add(cb.equal(cb.lower(category.get("name")), filter.getCategory().trim().toLowerCase()));
+            }
+            if (hasText(filter.getType())) {
+                predicates.add(cb.equal(root.get("type"), TransactionType.parse(filter.getType())));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.getTo()));
+            }
+            if (filter.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amountMinor"), Money.of(filter.getMinAmount()).minor()));
+            }
+            if (filter.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amountMinor"), Money.of(filter.getMaxAmount()).minor()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after {@code cursor} in {@code date DESC, id DESC} order. Postgres sorts
+     * NULLs first for DESC, so undated rows lead the listing and the plain index order is used.
+     */
+    public static Specification<Transaction> after(TransactionCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.and();
+            }
+            if (cursor.getDate() == null) {
+                return cb.or(
+                        cb.and(cb.isNull(root.get("date")), cb.lessThan(root.get("id"), cursor.getId())),
+                        cb.isNotNull(root.get("date")));
+            }
+            return cb.or(
+                    cb.lessThan(root.get("date"), cursor.getDate()),
+                    cb.and(cb.equal(root.get("date"), cursor.getDate()), cb.lessThan(root.get("id"), cursor.getId())));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
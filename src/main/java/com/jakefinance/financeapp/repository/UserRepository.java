@@ -2,9 +2,22 @@ package com.jakefinance.financeapp.repository;
 
 import com.jakefinance.financeapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email); // 🔧 This fixes the error
+
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    @Query("select u.id from User u order by u.id")
+    List<Long> findAllIds();
+
+    // One index probe into each table per user, so it costs O(users) however much history there is
+    @Query("select u.id from User u where exists (select 1 from Transaction t where t.user.id = u.id)"
+            + " and not exists (select 1 from MonthlyRollup r where r.userId = u.id) order by u.id")
+    List<Long> findIdsWithoutRollup();
 }
@@ -12,10 +12,12 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdCache userIdCache;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserIdCache userIdCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userIdCache = userIdCache;
     }
 
     public User register(String email, String rawPassword, String firstName, String lastName) throws IllegalArgumentException {
@@ -25,7 +27,9 @@ public class AuthService {
 
         String encodedPassword = passwordEncoder.encode(rawPassword);
         User user = new User(email, encodedPassword, firstName, lastName);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userIdCache.evict(email);
+        return saved;
     }
 
     public User login(String email, String rawPassword) throws IllegalArgumentException {
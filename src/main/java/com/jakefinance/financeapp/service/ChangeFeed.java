@@ -0,0 +1,251 @@
+package com.jakefinance.financeapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.Goal;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.repository.GoalRepository;
+import com.jakefinance.financeapp.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-user Server-Sent Events feed of transaction, goal and rollup changes, so open
+ * clients can patch their local state instead of re-fetching everything.
+ *
+ * Streams are async requests: an idle subscriber costs a socket and an entry in the
+ * registry, not a thread. On commit of a change, the affected rows are loaded and
+ * serialized once (only if the user has subscribers) and written to each of the user's
+ * streams by a small sender pool. A user always maps to the same sender thread, so their
+ * events arrive in commit order and a slow client can only hold up its own shard.
+ */
+@Service
+public class ChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private record Message(String name, String json) {}
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final TransactionRepository transactionRepository;
+    private final GoalRepository goalRepository;
+    private final UserIdCache userIdCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTemplate;
+    private final ThreadPoolExecutor[] senders;
+    private final Duration timeout;
+    private final int maxPerUser;
+    private final int maxRows;
+
+    public ChangeFeed(TransactionRepository transactionRepository,
+                      GoalRepository goalRepository,
+                      UserIdCache userIdCache,
+                      ObjectMapper objectMapper,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${changes.timeout:30m}") Duration timeout,
+                      @Value("${changes.max-per-user:10}") int maxPerUser,
+                      @Value("${changes.max-rows:500}") int maxRows,
+                      @Value("${changes.send-threads:2}") int sendThreads,
+                      @Value("${changes.send-queue-capacity:10000}") int queueCapacity) {
+        this.transactionRepository = transactionRepository;
+        this.goalRepository = goalRepository;
+        this.userIdCache = userIdCache;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.maxPerUser = Math.max(1, maxPerUser);
+        this.maxRows = maxRows;
+
+        // Rows are read in a fresh persistence context: the committing one may hold stale
+        // copies of rows that were changed with bulk statements
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+
+        this.senders = new ThreadPoolExecutor[Math.max(1, sendThreads)];
+        for (int i = 0; i < senders.length; i++) {
+            String name = "change-feed-" + (i + 1);
+            senders[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Opens a stream for the user. Past {@code changes.max-per-user} open streams the
+     * oldest is closed, so abandoned tabs can't pile up.
+     */
+    public SseEmitter subscribe(String email) {
+        Long userId = userIdCache.getUserId(email);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(userId, emitter));
+
+        List<SseEmitter> evicted = new ArrayList<>();
+        subscribers.compute(userId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            while (list.size() >= maxPerUser) {
+                evicted.add(list.remove(0));
+            }
+            list.add(emitter);
+            return list;
+        });
+        evicted.forEach(SseEmitter::complete);
+
+        try {
+            // Flushes the response headers so the client sees the stream open right away
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsChanged(TransactionChangedEvent event) {
+        if (!subscribers.containsKey(event.userId())) {
+            return;
+        }
+        List<Message> messages = new ArrayList<>();
+        if (event.created().size() + event.updated().size() > maxRows) {
+            // Too many rows to push (e.g. an import chunk); tell clients to re-fetch instead
+            messages.add(message("transaction.reload", Map.of()));
+        } else {
+            addRows(messages, "transaction", event.created(), event.updated(),
+                    ids -> transactionRepository.findOwned(event.userId(), ids), Transaction::getId);
+        }
+        if (!event.deleted().isEmpty()) {
+            messages.add(message("transaction.deleted", Map.of("ids", event.deleted())));
+        }
+        messages.add(message("rollup.changed", Map.of()));
+        publish(event.userId(), messages);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGoalsChanged(GoalChangedEvent event) {
+        if (!subscribers.containsKey(event.userId())) {
+            return;
+        }
+        List<Message> messages = new ArrayList<>();
+        addRows(messages, "goal", event.created(), event.updated(),
+                ids -> goalRepository.findOwned(event.userId(), ids), Goal::getId);
+        if (!event.deleted().isEmpty()) {
+            messages.add(message("goal.deleted", Map.of("ids", event.deleted())));
+        }
+        publish(event.userId(), messages);
+    }
+
+    /** Keeps idle streams alive through proxies and notices clients that went away. */
+    @Scheduled(fixedDelayString = "${changes.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        subscribers.forEach((userId, emitters) -> send(userId, emitters, List.of()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor sender : senders) {
+            sender.shutdownNow();
+        }
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    private <T> void addRows(List<Message> messages, String entity, Collection<Long> created, Collection<Long> updated,
+                             Function<Collection<Long>, List<T>> load, Function<T, Long> idOf) {
+        if (created.isEmpty() && updated.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(created);
+        ids.addAll(updated);
+        List<T> rows = readTemplate.execute(status -> load.apply(ids));
+        Set<Long> createdIds = new HashSet<>(created);
+        List<T> createdRows = rows.stream().filter(row -> createdIds.contains(idOf.apply(row))).toList();
+        List<T> updatedRows = rows.stream().filter(row -> !createdIds.contains(idOf.apply(row))).toList();
+        if (!createdRows.isEmpty()) {
+            messages.add(message(entity + ".created", createdRows));
+        }
+        if (!updatedRows.isEmpty()) {
+            messages.add(message(entity + ".updated", updatedRows));
+        }
+    }
+
+    private Message message(String name, Object data) {
+        try {
+            return new Message(name, objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + name + " event", e);
+        }
+    }
+
+    private void publish(Long userId, List<Message> messages) {
+        List<SseEmitter> emitters = subscribers.get(userId);
+        if (emitters != null && !messages.isEmpty()) {
+            send(userId, emitters, messages);
+        }
+    }
+
+    // An empty message list sends a heartbeat comment
+    private void send(Long userId, List<SseEmitter> emitters, List<Message> messages) {
+        try {
+            senders[(int) Math.floorMod(userId, (long) senders.length)].execute(() -> {
+                for (SseEmitter emitter : emitters) {
+                    try {
+                        if (messages.isEmpty()) {
+                            emitter.send(SseEmitter.event().comment("ping"));
+                        }
+                        for (Message m : messages) {
+                            emitter.send(SseEmitter.event().name(m.name()).data(m.json(), MediaType.APPLICATION_JSON));
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away; the stream is closed and removed from the registry
+                        unsubscribe(userId, emitter);
+                        emitter.completeWithError(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Change feed backlog full, dropping {} event(s) for user {}", messages.size(), userId);
+        }
+    }
+
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.jakefinance.financeapp.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC-4180 tokenizer. Handles quoted fields containing commas, doubled
+ * quotes and line breaks, and CRLF / LF / CR line endings. Reads through its own
+ * buffer one record at a time, so memory use does not grow with file size.
+ *
+ * {@link #readRecord()} reuses the returned list; copy it if it must outlive the
+ * next call.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int pushedBack = EOF;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next record, or null at end of input. A blank line comes back as a
+     * single empty field.
+     */
+    public List<String> readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+
+        int c = read();
+        if (c == EOF) {
+            return null;
+        }
+        if (line == 1 && recordLine == 0 && c == '\uFEFF') {
+            c = read(); // byte order mark written by Excel
+            if (c == EOF) {
+                return null;
+            }
+        }
+        recordLine = line;
+
+        while (true) {
+            if (c == '"' && field.length() == 0) {
+                c = readQuoted();
+            }
+            switch (c) {
+                case ',':
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    break;
+                case '\r':
+                    c = read();
+                    if (c != '\n') {
+                        pushedBack = c;
+                    }
+                    // fall through
+                case '\n':
+                    line++;
+                    // fall through
+                case EOF:
+                    fields.add(field.toString());
+                    return fields;
+                default:
+                    field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Physical line on which the most recently returned record started.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /** Reads a quoted field body into {@code field}; returns the character after the closing quote. */
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new IOException("Unterminated quoted field starting on line " + recordLine);
+            }
+            if (c == '"') {
+                int next = read();
+                if (next != '"') {
+                    return next;
+                }
+            } else if (c == '\n') {
+                line++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != EOF) {
+            int c = pushedBack;
+            pushedBack = EOF;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,69 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionPatch;
+import com.jakefinance.financeapp.repository.DimensionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Turns the account and category names sent by clients into ids of the user's Account
+ * and Category rows, creating rows for new names. Writers call this before writing
+ * transactions, inside their own database transaction, so new rows commit or roll back
+ * with them. Costs one lookup per dimension per call, however many rows.
+ */
+@Service
+public class DimensionService {
+
+    private final DimensionRepository dimensionRepository;
+
+    public DimensionService(DimensionRepository dimensionRepository) {
+        this.dimensionRepository = dimensionRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void resolve(Long userId, Collection<Transaction> transactions) {
+        Map<String, Long> accounts = ids(DimensionRepository.ACCOUNT, userId, transactions, Transaction::getAccount);
+        Map<String, Long> categories = ids(DimensionRepository.CATEGORY, userId, transactions, Transaction::getCategory);
+        for (Transaction t : transactions) {
+            if (t.getAccount() != null) {
+                t.setAccountId(accounts.get(t.getAccount()));
+            }
+            if (t.getCategory() != null) {
+                t.setCategoryId(categories.get(t.getCategory()));
+            }
+        }
+    }
+
+    /** Like {@link #resolve}, for batch patches; fields left null stay null. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void resolvePatches(Long userId, Collection<TransactionPatch> patches) {
+        Map<String, Long> accounts = ids(DimensionRepository.ACCOUNT, userId, patches, TransactionPatch::getAccount);
+        Map<String, Long> categories = ids(DimensionRepository.CATEGORY, userId, patches, TransactionPatch::getCategory);
+        for (TransactionPatch p : patches) {
+            p.setAccountId(p.getAccount() != null ? accounts.get(p.getAccount()) : null);
+            p.setCategoryId(p.getCategory() != null ? categories.get(p.getCategory()) : null);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long categoryId(Long userId, String name) {
+        return dimensionRepository.idsFor(DimensionRepository.CATEGORY, userId, Set.of(name)).get(name);
+    }
+
+    private <T> Map<String, Long> ids(String table, Long userId, Collection<T> rows, Function<T, String> name) {
+        Set<String> names = new HashSet<>();
+        for (T row : rows) {
+            names.add(name.apply(row));
+        }
+        names.remove(null);
+        return dimensionRepository.idsFor(table, userId, names);
+    }
+}
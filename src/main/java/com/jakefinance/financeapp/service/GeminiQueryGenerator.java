@@ -0,0 +1,313 @@
+package com.jakefinance.financeapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jakefinance.financeapp.model.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns a user's top spending categories and open goals into product search keywords
+ * using Gemini. Every call is bounded by {@code gemini.timeout}; an empty result means
+ * "use the local fallback" (no key, upstream down, timed out, or unparseable answer).
+ *
+ * Answers are cached by a hash of the inputs, the model/version that last answered is
+ * tried first, and after {@code gemini.breaker.failure-threshold} consecutive failures
+ * Gemini is skipped entirely for {@code gemini.breaker.open-duration}; after that a single
+ * trial call decides whether it closes again. The base URL is configurable so the client
+ * can be pointed at a local stub server.
+ *
+ * Each call is timed as {@code gemini.requests}, tagged with its outcome: success,
+ * timeout, error, or circuit_open (skipped without calling out).
+ */
+@Service
+public class GeminiQueryGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiQueryGenerator.class);
+
+    // openUntil while the half-open trial call is in flight: everyone else stays on the fallback
+    private static final long TRIAL = Long.MAX_VALUE;
+
+    // Tried in order of preference until one answers; gemini-2.5-flash is faster and cheaper
+    private static final List<String[]> MODELS = List.of(
+            new String[]{"v1", "gemini-2.5-flash"},
+            new String[]{"v1beta", "gemini-2.5-flash"},
+            new String[]{"v1", "gemini-2.5-pro"},
+            new String[]{"v1beta", "gemini-2.5-pro"});
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiKey;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private final Cache<String, String> queries;
+    private final AtomicInteger preferredModel = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong(); // 0 = closed
+    private final MeterRegistry registry;
+
+    public GeminiQueryGenerator(@Value("${gemini.api.key:${GEMINI_API_KEY:}}") String apiKey,
+                                @Value("${gemini.base-url:https://generativelanguage.googleapis.com}") String baseUrl,
+                                @Value("${gemini.timeout:5s}") Duration timeout,
+                                @Value("${gemini.cache.max-size:10000}") long cacheSize,
+                                @Value("${gemini.cache.ttl:24h}") Duration cacheTtl,
+                                @Value("${gemini.breaker.failure-threshold:3}") int failureThreshold,
+                                @Value("${gemini.breaker.open-duration:60s}") Duration openDuration,
+                                MeterRegistry registry) {
+        this.apiKey = apiKey;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.queries = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        this.registry = registry;
+        CaffeineCacheMetrics.monitor(registry, queries, "gemini-queries");
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    /**
+     * Comma-separated search keywords for the given spending and goals, or empty if
+     * Gemini is unavailable or didn't answer within the deadline.
+     */
+    public Optional<String> generate(Map<String, Money> categorySpending, List<String> goalTexts) {
+        if (!isConfigured()) {
+            return Optional.empty();
+        }
+        List<Map.Entry<String, Money>> topCategories = categorySpending.entrySet().stream()
+                .sorted(Map.Entry.<String, Money>comparingByValue().reversed())
+                .limit(5)
+                .toList();
+
+        String key = cacheKey(topCategories, goalTexts);
+        String cached = queries.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Timer.Sample sample = Timer.start(registry);
+        long until = openUntil.get();
+        boolean trial = until != 0;
+        // Once the open window has passed, exactly one caller wins the CAS and makes the trial call
+        if (trial && (System.currentTimeMillis() < until || !openUntil.compareAndSet(until, TRIAL))) {
+            log.debug("Gemini circuit open, skipping");
+            sample.stop(requests("circuit_open"));
+            return Optional.empty();
+        }
+
+        Call call = new Call(System.nanoTime() + timeout.toNanos());
+        CompletableFuture<String> result = callModels(buildRequestBody(topCategories, goalTexts), preferredModel.get(), 0, call);
+        String outcome = "error";
+        try {
+            String query = result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            consecutiveFailures.set(0);
+            openUntil.set(0);
+            queries.put(key, query);
+            outcome = "success";
+            return Optional.of(query);
+        } catch (TimeoutException e) {
+            call.cancel();
+            outcome = "timeout";
+            recordFailure("timed out after " + timeout.toMillis() + "ms");
+        } catch (ExecutionException e) {
+            recordFailure(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            call.cancel();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (trial) {
+                // Interrupted trial: neither closed nor re-opened, so let the next caller retry
+                openUntil.compareAndSet(TRIAL, System.currentTimeMillis());
+            }
+            sample.stop(requests(outcome));
+        }
+        return Optional.empty();
+    }
+
+    private Timer requests(String outcome) {
+        return registry.timer("gemini.requests", "outcome", outcome);
+    }
+
+    /**
+     * Tries each model once, starting at {@code start} and wrapping around, until one
+     * answers or the call is cancelled or past its deadline.
+     */
+    private CompletableFuture<String> callModels(String requestBody, int start, int attempt, Call call) {
+        if (call.isOver()) {
+            return CompletableFuture.failedFuture(new CancellationException("Gemini deadline passed"));
+        }
+        if (attempt == MODELS.size()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("no Gemini model answered"));
+        }
+        int index = (start + attempt) % MODELS.size();
+        String[] model = MODELS.get(index);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(String.format("%s/%s/models/%s:generateContent?key=%s", baseUrl, model[0], model[1], apiKey)))
+                .header("Content-Type", "application/json")
+                .timeout(call.remaining())
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+
+        CompletableFuture<HttpResponse<String>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        call.track(response);
+        return response
+                .thenApply(r -> r.statusCode() == 200 ? parseQuery(r.body()) : null)
+                .exceptionally(e -> null)
+                .thenCompose(query -> {
+                    if (call.cancelled) {
+                        // The caller has already given up (and counted it); a late answer changes nothing
+                        return CompletableFuture.failedFuture(new CancellationException("Gemini call cancelled"));
+                    }
+                    if (query != null) {
+                        preferredModel.set(index);
+                        log.debug("Gemini query from {}/{}: {}", model[0], model[1], query);
+                        return CompletableFuture.completedFuture(query);
+                    }
+                    return callModels(requestBody, start, attempt + 1, call);
+                });
+    }
+
+    /** One generate() call: the chain of model requests it makes, cancelled as a whole. */
+    private static final class Call {
+        private final long deadline;
+        private volatile boolean cancelled;
+        private volatile CompletableFuture<?> inFlight;
+
+        Call(long deadline) {
+            this.deadline = deadline;
+        }
+
+        boolean isOver() {
+            return cancelled || System.nanoTime() - deadline >= 0;
+        }
+
+        Duration remaining() {
+            return Duration.ofNanos(Math.max(1, deadline - System.nanoTime()));
+        }
+
+        /** Records the request now in flight, aborting it straight away if the call was cancelled meanwhile. */
+        void track(CompletableFuture<?> request) {
+            inFlight = request;
+            if (cancelled) {
+                request.cancel(true);
+            }
+        }
+
+        /** Aborts the request in flight and stops the remaining models from being tried. */
+        void cancel() {
+            cancelled = true;
+            CompletableFuture<?> request = inFlight;
+            if (request != null) {
+                request.cancel(true);
+            }
+        }
+    }
+
+    private void recordFailure(String reason) {
+        int failures = consecutiveFailures.incrementAndGet();
+        log.warn("Gemini query generation failed ({}), {} in a row", reason, failures);
+        if (failures >= failureThreshold) {
+            // Half-open after the window: one trial call (see generate), and a further failure re-opens
+            openUntil.set(System.currentTimeMillis() + openDuration.toMillis());
+            consecutiveFailures.set(failureThreshold - 1);
+            log.warn("Gemini circuit open for {}s", openDuration.toSeconds());
+        }
+    }
+
+    private String buildRequestBody(List<Map.Entry<String, Money>> topCategories, List<String> goalTexts) {
+        StringBuilder context = new StringBuilder("Based on the following financial data, generate 3-5 product search keywords:\n\n");
+        context.append("Top Spending Categories:\n");
+        topCategories.forEach(e -> context.append("- ").append(e.getKey()).append(": $").append(e.getValue()).append("\n"));
+
+        if (!goalTexts.isEmpty()) {
+            context.append("\nUser Goals:\n");
+            goalTexts.forEach(g -> context.append("- ").append(g).append("\n"));
+        }
+
+        context.append("\nGenerate comma-separated product search keywords that would help this user save money or achieve their goals.");
+
+        Map<String, Object> part = new HashMap<>();
+        part.put("text", context.toString());
+        Map<String, Object> content = new HashMap<>();
+        content.put("parts", List.of(part));
+        Map<String, Object> requestMap = new HashMap<>();
+        requestMap.put("contents", List.of(content));
+        try {
+            return objectMapper.writeValueAsString(requestMap);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to build Gemini request: " + e.getMessage(), e);
+        }
+    }
+
+    /** candidates[0].content.parts[0].text, stripped of markdown fences and quotes; null if absent. */
+    private String parseQuery(String body) {
+        try {
+            JsonNode textNode = objectMapper.readTree(body)
+                    .path("candidates").path(0).path("content").path("parts").path(0).path("text");
+            if (!textNode.isTextual()) {
+                log.warn("Gemini response structure unexpected: {}", body);
+                return null;
+            }
+            String generatedText = textNode.asText().trim();
+            generatedText = generatedText.replace("```", "").replace("json", "").replace("\"", "").trim();
+            return generatedText.isEmpty() ? null : generatedText;
+        } catch (Exception e) {
+            log.warn("Failed to parse Gemini response: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Keyed on which categories lead and which goals are open, not on exact amounts, so
+    // ordinary day-to-day spending doesn't defeat the cache
+    private static String cacheKey(List<Map.Entry<String, Money>> topCategories, List<String> goalTexts) {
+        List<String> parts = new ArrayList<>();
+        topCategories.forEach(e -> parts.add(e.getKey()));
+        parts.add("");
+        parts.addAll(goalTexts);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(String.join("\n", parts).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.jakefinance.financeapp.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published whenever a user's goals are added, changed or removed, with the ids affected.
+ */
+public record GoalChangedEvent(Long userId, Collection<Long> created, Collection<Long> updated,
+                               Collection<Long> deleted) {
+
+    public static GoalChangedEvent created(Long userId, Long id) {
+        return new GoalChangedEvent(userId, List.of(id), List.of(), List.of());
+    }
+
+    public static GoalChangedEvent updated(Long userId, Collection<Long> ids) {
+        return new GoalChangedEvent(userId, List.of(), ids, List.of());
+    }
+
+    public static GoalChangedEvent deleted(Long userId, Collection<Long> ids) {
+        return new GoalChangedEvent(userId, List.of(), List.of(), ids);
+    }
+}
@@ -1,34 +1,43 @@
 package com.jakefinance.financeapp.service;
 
+import com.jakefinance.financeapp.model.BulkRequest;
 import com.jakefinance.financeapp.model.Goal;
+import com.jakefinance.financeapp.model.Tombstone;
 import com.jakefinance.financeapp.model.User;
 import com.jakefinance.financeapp.repository.GoalRepository;
-import com.jakefinance.financeapp.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 public class GoalService {
 
     private final GoalRepository goalRepository;
-    private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
+    private final SyncService syncService;
+    private final ApplicationEventPublisher events;
 
-    public GoalService(GoalRepository goalRepository, UserRepository userRepository) {
+    public GoalService(GoalRepository goalRepository, UserIdCache userIdCache, SyncService syncService,
+                       ApplicationEventPublisher events) {
         this.goalRepository = goalRepository;
-        this.userRepository = userRepository;
+        this.userIdCache = userIdCache;
+        this.syncService = syncService;
+        this.events = events;
     }
 
     public List<Goal> getAllGoals(String email) {
-        User user = getUserByEmail(email);
-        return goalRepository.findByUser(user);
+        Long userId = userIdCache.getUserId(email);
+        return goalRepository.findByUserId(userId);
     }
 
+    @Transactional
     public Goal addGoal(Goal goal, String email) {
-        User user = getUserByEmail(email);
+        User user = userIdCache.getUserReference(email);
         goal.setUser(user);
+        goal.setChangeSeq(syncService.nextSeq(user.getId()));
         
         // Always set createdAt if not already set (shouldn't be set from frontend)
         if (goal.getCreatedAt() == null) {
@@ -45,29 +54,20 @@ public class GoalService {
             goal.setCompletedAt(null);
         }
         
-        return goalRepository.save(goal);
-    }
-
-    public Optional<Goal> getGoal(Long id) {
-        return goalRepository.findById(id);
+        Goal saved = goalRepository.save(goal);
+        events.publishEvent(GoalChangedEvent.created(user.getId(), saved.getId()));
+        return saved;
     }
 
+    /**
+     * Applies the non-null fields of {@code goalUpdate} to the user's goal. Completing stamps
+     * completedAt (keeping an existing stamp); un-completing clears it. Throws
+     * IllegalArgumentException if the goal doesn't exist or isn't the user's.
+     */
+    @Transactional
     public Goal updateGoal(Long id, Goal goalUpdate, String email) {
-        User user = getUserByEmail(email);
-        Optional<Goal> existingGoal = goalRepository.findById(id);
-        
-        if (existingGoal.isEmpty()) {
-            throw new IllegalArgumentException("Goal not found");
-        }
-        
-        Goal goal = existingGoal.get();
-        
-        // Verify the goal belongs to the user
-        if (!goal.getUser().getId().equals(user.getId())) {
-            throw new IllegalArgumentException("Goal does not belong to user");
-        }
-        
-        // Update fields
+        Long userId = userIdCache.getUserId(email);
+        Goal goal = findOwned(id, userId);
         if (goalUpdate.getText() != null) {
             goal.setText(goalUpdate.getText());
         }
@@ -78,36 +78,70 @@ public class GoalService {
             goal.setTimeframe(goalUpdate.getTimeframe());
         }
         if (goalUpdate.getCompleted() != null) {
-            goal.setCompleted(goalUpdate.getCompleted());
-            if (goalUpdate.getCompleted() && goal.getCompletedAt() == null) {
-                goal.setCompletedAt(LocalDate.now());
-            } else if (!goalUpdate.getCompleted()) {
-                goal.setCompletedAt(null);
-            }
+            setCompleted(goal, goalUpdate.getCompleted());
         }
-        
-        return goalRepository.save(goal);
+        goal.setChangeSeq(syncService.nextSeq(userId));
+        events.publishEvent(GoalChangedEvent.updated(userId, List.of(id)));
+        return goal;
     }
 
+    @Transactional
     public void deleteGoal(Long id, String email) {
-        User user = getUserByEmail(email);
-        Optional<Goal> goal = goalRepository.findById(id);
-        
-        if (goal.isEmpty()) {
-            throw new IllegalArgumentException("Goal not found");
+        Long userId = userIdCache.getUserId(email);
+        Goal goal = findOwned(id, userId);
+        goalRepository.delete(goal);
+        syncService.recordDeleted(userId, Tombstone.GOAL, List.of(id), syncService.nextSeq(userId));
+        events.publishEvent(GoalChangedEvent.deleted(userId, List.of(id)));
+    }
+
+    /**
+     * Completes or deletes every listed goal the user owns; others are skipped. Returns
+     * the number of goals affected.
+     */
+    @Transactional
+    public int bulkUpdate(BulkRequest request, String email) {
+        Long userId = userIdCache.getUserId(email);
+        String action = request.getAction() == null ? "" : request.getAction();
+        if (!action.equals("complete") && !action.equals("delete")) {
+            throw new IllegalArgumentException("action must be 'complete' or 'delete'");
         }
-        
-        // Verify the goal belongs to the user
-        if (!goal.get().getUser().getId().equals(user.getId())) {
-            throw new IllegalArgumentException("Goal does not belong to user");
+        // Resolve which ids are the user's first, so the change event names exactly those
+        List<Goal> goals = goalRepository.findOwned(userId, request.requireIds());
+        if (goals.isEmpty()) {
+            return 0;
         }
-        
-        goalRepository.deleteById(id);
+        List<Long> ids = goals.stream().map(Goal::getId).toList();
+        long seq = syncService.nextSeq(userId);
+        if (action.equals("complete")) {
+            for (Goal goal : goals) {
+                setCompleted(goal, true);
+                goal.setChangeSeq(seq);
+            }
+            events.publishEvent(GoalChangedEvent.updated(userId, ids));
+        } else {
+            goalRepository.deleteAll(goals);
+            syncService.recordDeleted(userId, Tombstone.GOAL, ids, seq);
+            events.publishEvent(GoalChangedEvent.deleted(userId, ids));
+        }
+        return ids.size();
     }
 
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found for email: " + email));
+    // Writes go through loaded entities and dirty checking rather than bulk statements:
+    // Hibernate then updates or evicts just those goals' cache entries, where a bulk
+    // UPDATE / DELETE would clear the whole Goal region for every user.
+    private Goal findOwned(Long id, Long userId) {
+        // findById reads through the Goal cache region; the user reference isn't loaded
+        return goalRepository.findById(id)
+                .filter(goal -> goal.getUser().getId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Goal not found"));
     }
-}
 
+    private static void setCompleted(Goal goal, boolean completed) {
+        goal.setCompleted(completed);
+        if (!completed) {
+            goal.setCompletedAt(null);
+        } else if (goal.getCompletedAt() == null) {
+            goal.setCompletedAt(LocalDate.now());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.ImportJob;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs imports off the request thread. Uploads are copied to a temp file (the
+ * multipart part is deleted when the request ends) and handed to a fixed-size pool
+ * with a bounded queue; when the queue is full {@link #submit} throws
+ * RejectedExecutionException instead of piling up work. Job state lives in memory
+ * and finished jobs are dropped after {@code import.jobs.retention-minutes}.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final TransactionImportService importService;
+    private final UserIdCache userIdCache;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(TransactionImportService importService,
+                            UserIdCache userIdCache,
+                            @Value("${import.jobs.threads:2}") int threads,
+                            @Value("${import.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${import.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.importService = importService;
+        this.userIdCache = userIdCache;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "import-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public ImportJob submit(MultipartFile file, String email) throws IOException {
+        Long userId = userIdCache.getUserId(email);
+
+        Path upload = Files.createTempFile("import-", ".upload");
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, file.getOriginalFilename());
+        // Once queued, run() owns the upload and deletes it; until then it is ours to clean up
+        try {
+            file.transferTo(upload);
+            jobs.put(job.getId(), job);
+            executor.execute(() -> run(job, upload));
+        } catch (IOException | RuntimeException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Looks up a job, hiding jobs that belong to other users.
+     */
+    public Optional<ImportJob> getJob(String id, String email) {
+        ImportJob job = jobs.get(id);
+        if (job == null || !job.getUserId().equals(userIdCache.getUserId(email))) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    private void run(ImportJob job, Path upload) {
+        job.start();
+        try (InputStream in = Files.newInputStream(upload)) {
+            importService.importFile(job.getFilename(), in, job.getUserId(), job.getResult());
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete import upload {}", upload, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "PT5M")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,21 +1,78 @@
 package com.jakefinance.financeapp.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
     private static final String SECRET = "super-secret-key-which-is-at-least-256-bits-long";
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24; // 1 day
+    // Longest a verified token stays cached, also for tokens without an exp claim
+    private static final long MAX_CACHE_MS = EXPIRATION_TIME;
 
     private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
 
+    // A built parser is immutable and thread-safe; building one per call was most of the cost
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // SHA-256 of the token -> its verified subject and expiry. Entries expire with the token
+    // itself, so a cache hit never outlives the exp claim.
+    private final Cache<String, VerifiedToken> verified;
+
+    // jwt.verifications, by outcome: cached, valid or invalid (bad signature, malformed, expired)
+    private final Timer cachedVerifications;
+    private final Timer validVerifications;
+    private final Timer invalidVerifications;
+
+    public JwtService(@Value("${jwt.cache.max-size:10000}") long cacheSize, MeterRegistry registry) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+                        long remainingMs = Math.max(0, token.expiresAt() - System.currentTimeMillis());
+                        return TimeUnit.MILLISECONDS.toNanos(Math.min(remainingMs, MAX_CACHE_MS));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(hash, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt-tokens");
+        this.cachedVerifications = registry.timer("jwt.verifications", "outcome", "cached");
+        this.validVerifications = registry.timer("jwt.verifications", "outcome", "valid");
+        this.invalidVerifications = registry.timer("jwt.verifications", "outcome", "invalid");
+    }
+
+    /** Subject and expiry (epoch millis) of a token whose signature has been checked. */
+    public record VerifiedToken(String subject, long expiresAt) {}
+
     public String generateToken(String email) {
         Map<String, Object> claims = new HashMap<>();
         return Jwts.builder()
@@ -27,27 +84,57 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Returns the token's subject and expiry, or null if the token is malformed, badly
+     * signed or expired. Tokens seen before are answered from the cache without
+     * re-verifying the signature.
+     */
+    public VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        String hash = hash(token);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            cachedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        VerifiedToken fresh = parse(token);
+        if (fresh != null && fresh.expiresAt() > System.currentTimeMillis()) {
+            verified.put(hash, fresh);
+            validVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            invalidVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return fresh;
+    }
+
+    /** Full signature check and claims parse, bypassing the cache. */
+    public VerifiedToken parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(claims.getSubject(), expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public boolean isTokenValid(String token, String userEmail) {
-        try {
-            final String extractedEmail = extractEmail(token);
-            return extractedEmail.equals(userEmail) && !isTokenExpired(token);
-        } catch (JwtException e) {
-            return false;
-        }
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken != null && verifiedToken.subject().equals(userEmail);
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
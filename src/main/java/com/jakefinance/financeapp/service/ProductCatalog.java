@@ -0,0 +1,259 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable, indexed snapshot of the product catalog. Products are addressed by their
+ * position (0..size-1); categories map to precomputed position arrays and every word of
+ * a product's name and description to a BM25 posting list, so assembling or ranking a
+ * recommendation list only touches the products that match.
+ * {@link ProductCatalogLoader} builds a new snapshot on reload and swaps it in.
+ */
+public final class ProductCatalog {
+
+    public static final String DEFAULT_CATEGORY = "default";
+
+    // BM25 parameters; a word in the name counts as NAME_BOOST occurrences
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 2;
+
+    private final Product[] products;
+    private final Map<String, int[]> byCategory;
+    private final Map<String, Postings> byTerm;
+
+    /** Products containing a term, ascending, with each one's precomputed BM25 weight. */
+    private record Postings(int[] positions, float[] weights) {}
+
+    private ProductCatalog(Product[] products, Map<String, int[]> byCategory, Map<String, Postings> byTerm) {
+        this.products = products;
+        this.byCategory = byCategory;
+        this.byTerm = byTerm;
+    }
+
+    /**
+     * Builds a catalog from category -> products, in file order. Throws
+     * IllegalArgumentException if there is no default category or an id repeats.
+     */
+    public static ProductCatalog of(Map<String, List<Product>> categories) {
+        if (!categories.containsKey(DEFAULT_CATEGORY)) {
+            throw new IllegalArgumentException("Catalog has no '" + DEFAULT_CATEGORY + "' category");
+        }
+        List<Product> products = new ArrayList<>();
+        Map<String, int[]> byCategory = new HashMap<>();
+        Set<Integer> ids = new HashSet<>();
+        for (Map.Entry<String, List<Product>> category : categories.entrySet()) {
+            int[] positions = new int[category.getValue().size()];
+            for (int i = 0; i < positions.length; i++) {
+                Product product = category.getValue().get(i);
+                if (!ids.add(product.getId())) {
+                    throw new IllegalArgumentException("Duplicate product id " + product.getId());
+                }
+                positions[i] = products.size();
+                products.add(product);
+            }
+            byCategory.put(category.getKey(), positions);
+        }
+
+        // Term frequencies per product, then BM25 weights once the average length is known
+        int n = products.size();
+        Map<String, Map<Integer, Integer>> frequencies = new HashMap<>();
+        int[] lengths = new int[n];
+        long totalLength = 0;
+        for (int position = 0; position < n; position++) {
+            Product product = products.get(position);
+            for (String token : tokenize(product.getName())) {
+                frequencies.computeIfAbsent(token, t -> new TreeMap<>()).merge(position, NAME_BOOST, Integer::sum);
+                lengths[position] += NAME_BOOST;
+            }
+            for (String token : tokenize(product.getDescription())) {
+                frequencies.computeIfAbsent(token, t -> new TreeMap<>()).merge(position, 1, Integer::sum);
+                lengths[position]++;
+            }
+            totalLength += lengths[position];
+        }
+        double averageLength = n == 0 ? 1 : Math.max(1, (double) totalLength / n);
+
+        Map<String, Postings> byTerm = new HashMap<>(frequencies.size() * 2);
+        frequencies.forEach((token, counts) -> {
+            double idf = Math.log(1 + (n - counts.size() + 0.5) / (counts.size() + 0.5));
+            int[] positions = new int[counts.size()];
+            float[] weights = new float[counts.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> count : counts.entrySet()) {
+                double tf = count.getValue();
+                double norm = K1 * (1 - B + B * lengths[count.getKey()] / averageLength);
+                positions[i] = count.getKey();
+                weights[i] = (float) (idf * tf * (K1 + 1) / (tf + norm));
+                i++;
+            }
+            byTerm.put(token, new Postings(positions, weights));
+        });
+
+        return new ProductCatalog(products.toArray(new Product[0]),
+                Collections.unmodifiableMap(byCategory), Collections.unmodifiableMap(byTerm));
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    public Product get(int position) {
+        return products[position];
+    }
+
+    /** Positions of the category's products, or the default category's if it has none. */
+    public int[] categoryOrDefault(String category) {
+        int[] positions = byCategory.get(category);
+        return positions != null ? positions : byCategory.get(DEFAULT_CATEGORY);
+    }
+
+    /**
+     * The {@code k} best products for a weighted query, best first: each product scores the
+     * weighted sum of BM25 over the query terms found in its name/description, plus the
+     * weight of its category. Products matching nothing are left out. Ties keep catalog
+     * order. Costs O(matches log k), selected through a bounded min-heap.
+     */
+    public int[] rank(Map<String, Double> termWeights, Map<String, Double> categoryWeights, int k) {
+        float[] scores = new float[products.length];
+        int[] touched = new int[16];
+        int touchedCount = 0;
+
+        for (Map.Entry<String, Double> term : termWeights.entrySet()) {
+            Postings postings = byTerm.get(term.getKey());
+            if (postings == null) {
+                continue;
+            }
+            float weight = term.getValue().floatValue();
+            for (int i = 0; i < postings.positions().length; i++) {
+                int position = postings.positions()[i];
+                if (scores[position] == 0) {
+                    touched = append(touched, touchedCount++, position);
+                }
+                scores[position] += weight * postings.weights()[i];
+            }
+        }
+        for (Map.Entry<String, Double> category : categoryWeights.entrySet()) {
+            int[] positions = byCategory.get(category.getKey());
+            if (positions == null) {
+                continue;
+            }
+            float weight = category.getValue().floatValue();
+            for (int position : positions) {
+                if (scores[position] == 0) {
+                    touched = append(touched, touchedCount++, position);
+                }
+                scores[position] += weight;
+            }
+        }
+
+        // Min-heap of the best k so far; the root is the weakest (lowest score, latest position)
+        Comparator<Integer> weakestFirst = (a, b) -> {
+            int byScore = Float.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(b, a);
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, k), weakestFirst);
+        for (int i = 0; i < touchedCount; i++) {
+            int position = touched[i];
+            if (scores[position] <= 0) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(position);
+            } else if (k > 0 && weakestFirst.compare(position, best.peek()) > 0) {
+                best.poll();
+                best.add(position);
+            }
+        }
+
+        int[] ranked = new int[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll();
+        }
+        return ranked;
+    }
+
+    public Selection newSelection() {
+        return new Selection();
+    }
+
+    /** Lower-cased alphanumeric words. */
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+"))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static int[] append(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, index * 2);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    /**
+     * Ordered, de-duplicated list of products being assembled. Membership is a bitset
+     * over catalog positions, so merging a whole category costs one bit test per product.
+     */
+    public final class Selection {
+
+        private final BitSet seen = new BitSet(products.length);
+        private int[] order = new int[16];
+        private int count;
+
+        public Selection add(int position) {
+            if (!seen.get(position)) {
+                seen.set(position);
+                if (count == order.length) {
+                    order = Arrays.copyOf(order, count * 2);
+                }
+                order[count++] = position;
+            }
+            return this;
+        }
+
+        public Selection addAll(int[] positions) {
+            for (int position : positions) {
+                add(position);
+            }
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        /**
+         * The selected products in insertion order, padded to at least {@code minSize} by
+         * repeating the list under fresh ids (1000 + index) so paging has enough items.
+         */
+        public List<Product> toList(int minSize) {
+            List<Product> result = new ArrayList<>(Math.max(count, minSize));
+            for (int i = 0; i < count; i++) {
+                result.add(products[order[i]]);
+            }
+            for (int i = 0; count > 0 && result.size() < minSize; i++) {
+                result.add(result.get(i % count).withId(1000 + result.size()));
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.jakefinance.financeapp.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Loads the product catalog from {@code recommendations.catalog} at startup and reloads
+ * it when the file's modification time changes, without a restart. A catalog that fails
+ * to parse or validate on reload is logged and the previous one stays in service.
+ */
+@Service
+public class ProductCatalogLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogLoader.class);
+
+    private static final TypeReference<LinkedHashMap<String, List<Product>>> CATALOG_TYPE = new TypeReference<>() {};
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+
+    private volatile ProductCatalog catalog;
+    private volatile long loadedModified;
+
+    public ProductCatalogLoader(ResourceLoader resourceLoader,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher events,
+                                @Value("${recommendations.catalog:classpath:catalog/products.json}") String location) throws IOException {
+        this.resource = resourceLoader.getResource(location);
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.loadedModified = lastModified();
+        this.catalog = load();
+        log.info("Loaded {} catalog products from {}", catalog.size(), location);
+    }
+
+    public ProductCatalog getCatalog() {
+        return catalog;
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.catalog.reload-interval:PT1M}")
+    public void reloadIfChanged() {
+        long modified = lastModified();
+        if (modified != loadedModified) {
+            reload(modified);
+        }
+    }
+
+    private synchronized void reload(long modified) {
+        try {
+            ProductCatalog fresh = load();
+            catalog = fresh;
+            loadedModified = modified;
+            log.info("Reloaded {} catalog products from {}", fresh.size(), resource);
+            events.publishEvent(new ProductCatalogReloadedEvent());
+        } catch (IOException | IllegalArgumentException e) {
+            loadedModified = modified; // don't retry the same broken file every interval
+            log.error("Catalog reload from {} failed, keeping the previous catalog: {}", resource, e.getMessage());
+        }
+    }
+
+    private ProductCatalog load() throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return ProductCatalog.of(objectMapper.readValue(in, CATALOG_TYPE));
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
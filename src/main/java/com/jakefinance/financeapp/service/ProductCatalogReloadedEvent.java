@@ -0,0 +1,6 @@
+package com.jakefinance.financeapp.service;
+
+/**
+ * Published after a new product catalog has been swapped in.
+ */
+public record ProductCatalogReloadedEvent() {}
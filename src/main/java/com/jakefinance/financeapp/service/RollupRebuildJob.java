@@ -0,0 +1,64 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically compares every user's monthly_rollup against the raw Transaction
+ * table and rebuilds the ones that have drifted. At startup it only backfills users
+ * who have transactions but no rollup rows yet (history that predates the rollup
+ * table, or a rollup dropped by a migration); the full scan costs O(all transactions),
+ * so it is left to the nightly run.
+ */
+@Component
+public class RollupRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupRebuildJob.class);
+
+    private final RollupService rollupService;
+    private final UserRepository userRepository;
+
+    public RollupRebuildJob(RollupService rollupService, UserRepository userRepository) {
+        this.rollupService = rollupService;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        int rebuilt = 0;
+        for (Long userId : userRepository.findIdsWithoutRollup()) {
+            try {
+                rollupService.rebuild(userId);
+                rebuilt++;
+            } catch (RuntimeException e) {
+                log.error("monthly_rollup backfill failed for user {}", userId, e);
+            }
+        }
+        if (rebuilt > 0) {
+            log.info("monthly_rollup backfilled for {} user(s)", rebuilt);
+        }
+    }
+
+    @Scheduled(cron = "${rollup.rebuild.cron:0 30 3 * * *}")
+    public void checkAll() {
+        int rebuilt = 0;
+        for (Long userId : userRepository.findAllIds()) {
+            try {
+                long drift = rollupService.countDrift(userId);
+                if (drift > 0) {
+                    log.warn("monthly_rollup drift for user {}: {} key(s) differ, rebuilding", userId, drift);
+                    rollupService.rebuild(userId);
+                    rebuilt++;
+                }
+            } catch (RuntimeException e) {
+                log.error("monthly_rollup check failed for user {}", userId, e);
+            }
+        }
+        log.info("monthly_rollup check complete, {} user(s) rebuilt", rebuilt);
+    }
+}
@@ -0,0 +1,150 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.AccountSummary;
+import com.jakefinance.financeapp.model.CategorySummary;
+import com.jakefinance.financeapp.model.MonthlyRollup;
+import com.jakefinance.financeapp.model.MonthlySummary;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionTotals;
+import com.jakefinance.financeapp.repository.MonthlyRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains and reads the monthly_rollup table.
+ *
+ * Writers call {@link #recordAdded} / {@link #recordRemoved} inside their own
+ * transaction so the rollup commits (or rolls back) together with the rows it
+ * summarizes, after resolving account and category names to ids (see DimensionService).
+ * Deltas are folded per key first, so a bulk write issues one upsert per
+ * (month, account, category, type) rather than one per row.
+ */
+@Service
+public class RollupService {
+
+    private final MonthlyRollupRepository rollupRepository;
+
+    public RollupService(MonthlyRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(Long userId, Collection<Transaction> transactions) {
+        apply(userId, transactions, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Long userId, Collection<Transaction> transactions) {
+        apply(userId, transactions, -1);
+    }
+
+    /**
+     * Records a mixed write (e.g. a batch of creates, edits and deletes) as one set of
+     * deltas: an edited row appears in {@code removed} with its old values and in
+     * {@code added} with its new ones, and keys where the two cancel out aren't touched.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReplaced(Long userId, Collection<Transaction> removed, Collection<Transaction> added) {
+        Map<Key, Delta> deltas = new HashMap<>();
+        fold(deltas, removed, -1);
+        fold(deltas, added, 1);
+        deltas.values().removeIf(delta -> delta.count == 0 && delta.total == 0);
+        write(userId, deltas);
+    }
+
+    /**
+     * Takes the per-user rollup lock up front. Writers that touch many rows call this
+     * before their first write so they queue behind other writers for this user instead
+     * of deadlocking with them later in the transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockUser(Long userId) {
+        rollupRepository.lockUser(userId);
+    }
+
+    private void apply(Long userId, Collection<Transaction> transactions, int sign) {
+        Map<Key, Delta> deltas = new HashMap<>();
+        fold(deltas, transactions, sign);
+        write(userId, deltas);
+    }
+
+    private static void fold(Map<Key, Delta> deltas, Collection<Transaction> transactions, int sign) {
+        for (Transaction t : transactions) {
+            Key key = new Key(MonthlyRollup.yearMonthOf(t.getDate()),
+                    MonthlyRollup.accountKey(t.getAccountId()),
+                    MonthlyRollup.categoryKey(t.getCategoryId()),
+                    MonthlyRollup.typeKey(t.getType()));
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.total += sign * t.getAmountMinor();
+            delta.count += sign;
+        }
+    }
+
+    private void write(Long userId, Map<Key, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        rollupRepository.lockUser(userId);
+        deltas.forEach((key, delta) -> rollupRepository.applyDelta(
+                userId, key.yearMonth(), key.accountId(), key.categoryId(), key.type(), delta.total, delta.count));
+    }
+
+    /**
+     * Recomputes a user's rollup from the raw Transaction table.
+     */
+    @Transactional
+    public void rebuild(Long userId) {
+        rollupRepository.lockUser(userId);
+        rollupRepository.deleteForUser(userId);
+        rollupRepository.rebuildForUser(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public long countDrift(Long userId) {
+        return rollupRepository.countDrift(userId);
+    }
+
+    /**
+     * The rollup can only answer queries whose range is made of whole calendar months.
+     */
+    public boolean coversWholeMonths(LocalDate from, LocalDate to) {
+        return (from == null || from.getDayOfMonth() == 1)
+                && (to == null || to.getDayOfMonth() == to.lengthOfMonth());
+    }
+
+    public TransactionTotals getTotals(Long userId, LocalDate from, LocalDate to, String account) {
+        return rollupRepository.summarize(userId, yearMonth(from), yearMonth(to), account);
+    }
+
+    public List<CategorySummary> getCategorySummary(Long userId, LocalDate from, LocalDate to, String account, boolean byMonth) {
+        return byMonth
+                ? rollupRepository.summarizeByMonthAndCategory(userId, yearMonth(from), yearMonth(to), account)
+                : rollupRepository.summarizeByCategory(userId, yearMonth(from), yearMonth(to), account);
+    }
+
+    public List<MonthlySummary> getMonthlySummary(Long userId, LocalDate from, LocalDate to, String account) {
+        return rollupRepository.summarizeByMonth(userId, yearMonth(from), yearMonth(to), account);
+    }
+
+    public List<AccountSummary> getAccountSummary(Long userId, LocalDate from, LocalDate to) {
+        return rollupRepository.summarizeByAccount(userId, yearMonth(from), yearMonth(to), null);
+    }
+
+    private static Integer yearMonth(LocalDate date) {
+        return date == null ? null : MonthlyRollup.yearMonthOf(date);
+    }
+
+    private record Key(int yearMonth, long accountId, long categoryId, String type) {}
+
+    private static final class Delta {
+        long total; // minor units
+        long count;
+    }
+}
@@ -0,0 +1,45 @@
+package com.jakefinance.financeapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived, single-use tickets for opening the change feed. EventSource can't send an
+ * Authorization header, and a JWT in the query string ends up in access logs and browser
+ * history for a day; a ticket is worth one stream, for {@link #TTL}, and is useless once
+ * it has been seen. Tickets live in memory, like the feed's subscriptions.
+ */
+@Service
+public class StreamTicketService {
+
+    public static final Duration TTL = Duration.ofSeconds(30);
+
+    private static final int TICKET_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Ticket -> email of the user it was issued to
+    private final Cache<String, String> tickets = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(100_000)
+            .build();
+
+    public String issue(String email) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, email);
+        return ticket;
+    }
+
+    /** Email the ticket was issued to, or null if it is unknown, expired or already used. */
+    public String redeem(String ticket) {
+        // Removing is what makes it single-use: of two concurrent redeemers only one gets the email
+        return tickets.asMap().remove(ticket);
+    }
+}
@@ -0,0 +1,98 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.Goal;
+import com.jakefinance.financeapp.model.SyncResponse;
+import com.jakefinance.financeapp.model.Tombstone;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.repository.GoalRepository;
+import com.jakefinance.financeapp.repository.SyncRepository;
+import com.jakefinance.financeapp.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Delta sync: a per-user change sequence stamped on every written row, tombstones for
+ * deleted rows, and "what changed since version N" reads.
+ *
+ * Writers call {@link #nextSeq} once per database transaction, before writing rows and
+ * before taking the rollup lock (always in that order, so the two per-user locks can't
+ * deadlock), and {@link #recordDeleted} for rows they delete.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private final SyncRepository syncRepository;
+    private final TransactionRepository transactionRepository;
+    private final GoalRepository goalRepository;
+    private final UserIdCache userIdCache;
+    private final Duration tombstoneRetention;
+
+    public SyncService(SyncRepository syncRepository,
+                       TransactionRepository transactionRepository,
+                       GoalRepository goalRepository,
+                       UserIdCache userIdCache,
+                       @Value("${sync.tombstone-retention:90d}") Duration tombstoneRetention) {
+        this.syncRepository = syncRepository;
+        this.transactionRepository = transactionRepository;
+        this.goalRepository = goalRepository;
+        this.userIdCache = userIdCache;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /** The user's next change sequence value; their other writers wait until this transaction ends. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextSeq(Long userId) {
+        return syncRepository.nextSeq(userId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long userId, String entity, Collection<Long> ids, long seq) {
+        syncRepository.addTombstones(userId, entity, ids, seq);
+    }
+
+    /**
+     * Everything that changed after {@code since}. Falls back to a full snapshot when
+     * {@code since} is 0, ahead of the server (e.g. the database was restored), or older
+     * than the tombstones still kept. Runs on one snapshot, so the version returned covers
+     * exactly the rows returned.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncResponse changesSince(String email, long since) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        Long userId = userIdCache.getUserId(email);
+        long[] counter = syncRepository.counter(userId);
+        long version = counter[0], prunedSeq = counter[1];
+
+        if (since == 0 || since > version || since < prunedSeq) {
+            return new SyncResponse(version, true, transactionRepository.findByUserId(userId),
+                    goalRepository.findByUserId(userId), List.of(), List.of());
+        }
+        List<Transaction> transactions = transactionRepository.findChangedSince(userId, since);
+        List<Goal> goals = goalRepository.findChangedSince(userId, since);
+        return new SyncResponse(version, false, transactions, goals,
+                syncRepository.deletedSince(userId, Tombstone.TRANSACTION, since),
+                syncRepository.deletedSince(userId, Tombstone.GOAL, since));
+    }
+
+    @Scheduled(cron = "${sync.prune.cron:0 45 3 * * *}")
+    @Transactional
+    public void pruneTombstones() {
+        int users = syncRepository.pruneTombstones(Instant.now().minus(tombstoneRetention));
+        log.info("Pruned tombstones older than {} days for {} user(s)", tombstoneRetention.toDays(), users);
+    }
+}
@@ -0,0 +1,272 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.BatchOperation;
+import com.jakefinance.financeapp.model.BatchRequest;
+import com.jakefinance.financeapp.model.BatchResult;
+import com.jakefinance.financeapp.model.Tombstone;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionPatch;
+import com.jakefinance.financeapp.repository.TransactionBatchRepository;
+import com.jakefinance.financeapp.repository.TransactionBatchRepository.Change;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of create / update / delete / recategorize operations in one database
+ * transaction. Consecutive operations of the same kind are sent as a single statement
+ * (a run), so a batch of N edits costs a handful of round trips rather than N; runs are
+ * executed in request order, so later operations see the effect of earlier ones. The
+ * rollup is updated once for the whole batch.
+ *
+ * The whole request is validated before anything is written. Operations on ids the user
+ * doesn't own (or that don't exist) don't fail the batch; they're reported as not_found.
+ */
+@Service
+public class TransactionBatchService {
+
+    private static final Set<String> OPS = Set.of("create", "update", "delete", "recategorize");
+
+    private final TransactionBatchRepository batchRepository;
+    private final RollupService rollupService;
+    private final SyncService syncService;
+    private final DimensionService dimensionService;
+    private final UserIdCache userIdCache;
+    private final ApplicationEventPublisher events;
+
+    public TransactionBatchService(TransactionBatchRepository batchRepository,
+                                   RollupService rollupService,
+                                   SyncService syncService,
+                                   DimensionService dimensionService,
+                                   UserIdCache userIdCache,
+                                   ApplicationEventPublisher events) {
+        this.batchRepository = batchRepository;
+        this.rollupService = rollupService;
+        this.syncService = syncService;
+        this.dimensionService = dimensionService;
+        this.userIdCache = userIdCache;
+        this.events = events;
+    }
+
+    /**
+     * Returns one result per operation, in request order. Throws IllegalArgumentException
+     * (naming the offending operation) if the request is invalid; nothing is written then.
+     */
+    @Transactional
+    public List<BatchResult> apply(BatchRequest request, String email) {
+        List<BatchOperation> operations = validate(request);
+        Long userId = userIdCache.getUserId(email);
+        long seq = syncService.nextSeq(userId);
+        rollupService.lockUser(userId);
+        dimensionService.resolvePatches(userId, operations.stream()
+                .map(BatchOperation::getTransaction).filter(Objects::nonNull).toList());
+
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        List<Transaction> removed = new ArrayList<>();
+        List<Transaction> added = new ArrayList<>();
+        Changes changes = new Changes();
+
+        int start = 0;
+        while (start < operations.size()) {
+            int end = runEnd(operations, start);
+            List<BatchOperation> run = operations.subList(start, end);
+            switch (run.get(0).getOp()) {
+                case "create" -> create(userId, seq, run, start, results, added, changes);
+                case "update" -> update(userId, seq, run, start, results, removed, added, changes);
+                case "delete" -> delete(userId, seq, run, start, results, removed, changes);
+                default -> recategorize(userId, seq, run.get(0), start, results, removed, added, changes);
+            }
+            start = end;
+        }
+
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            rollupService.recordReplaced(userId, removed, added);
+            events.publishEvent(changes.toEvent(userId));
+        }
+        return results;
+    }
+
+    private void create(Long userId, long seq, List<BatchOperation> run, int offset,
+                        List<BatchResult> results, List<Transaction> added, Changes changes) {
+        List<TransactionPatch> transactions = run.stream().map(BatchOperation::getTransaction).toList();
+        List<Long> ids = batchRepository.allocateIds(transactions.size());
+        batchRepository.insertWithIds(userId, transactions, ids, seq);
+        transactions.forEach(t -> added.add(t.toTransaction()));
+        changes.created.addAll(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            results.add(new BatchResult(offset + i, "created", ids.get(i), null));
+        }
+    }
+
+    private void update(Long userId, long seq, List<BatchOperation> run, int offset,
+                        List<BatchResult> results, List<Transaction> removed, List<Transaction> added,
+                        Changes changes) {
+        List<Long> ids = run.stream().map(BatchOperation::getId).toList();
+        List<TransactionPatch> patches = run.stream().map(BatchOperation::getTransaction).toList();
+        Map<Long, Change> updated = batchRepository.updateOwned(userId, ids, patches, seq).stream()
+                .collect(Collectors.toMap(Change::id, Function.identity()));
+        for (int i = 0; i < ids.size(); i++) {
+            Change change = updated.get(ids.get(i));
+            if (change != null) {
+                removed.add(change.before());
+                added.add(change.after());
+                changes.updated(change.id());
+            }
+            results.add(new BatchResult(offset + i, change != null ? "updated" : "not_found", ids.get(i), null));
+        }
+    }
+
+    private void delete(Long userId, long seq, List<BatchOperation> run, int offset,
+                        List<BatchResult> results, List<Transaction> removed, Changes changes) {
+        List<Long> ids = run.stream().map(BatchOperation::getId).toList();
+        Map<Long, Transaction> deleted = batchRepository.deleteOwned(userId, ids);
+        syncService.recordDeleted(userId, Tombstone.TRANSACTION, deleted.keySet(), seq);
+        removed.addAll(deleted.values());
+        deleted.keySet().forEach(changes::deleted);
+        for (int i = 0; i < ids.size(); i++) {
+            String status = deleted.containsKey(ids.get(i)) ? "deleted" : "not_found";
+            results.add(new BatchResult(offset + i, status, ids.get(i), null));
+        }
+    }
+
+    private void recategorize(Long userId, long seq, BatchOperation op, int index,
+                              List<BatchResult> results, List<Transaction> removed, List<Transaction> added,
+                              Changes changes) {
+        long categoryId = dimensionService.categoryId(userId, op.getCategory());
+        List<Change> recategorized = batchRepository.recategorize(userId, op.getMatch(), categoryId, seq);
+        for (Change change : recategorized) {
+            removed.add(change.before());
+            added.add(change.after());
+            changes.updated(change.id());
+        }
+        results.add(new BatchResult(index, "updated", null, recategorized.size()));
+    }
+
+    /**
+     * End (exclusive) of the run starting at {@code start}: following operations of the same
+     * kind, stopping before an id repeats so every statement touches each row at most once.
+     * Recategorize operations each carry their own filter and always run alone.
+     */
+    private static int runEnd(List<BatchOperation> operations, int start) {
+        String op = operations.get(start).getOp();
+        if (op.equals("recategorize")) {
+            return start + 1;
+        }
+        Set<Long> ids = new HashSet<>();
+        int end = start;
+        while (end < operations.size() && operations.get(end).getOp().equals(op)
+                && (op.equals("create") || ids.add(operations.get(end).getId()))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Net effect of the batch on each row, for the change event: a row created and then
+     * updated is just created; a row created and then deleted doesn't appear at all.
+     */
+    private static final class Changes {
+        final Set<Long> created = new LinkedHashSet<>();
+        final Set<Long> updated = new LinkedHashSet<>();
+        final Set<Long> deleted = new LinkedHashSet<>();
+
+        void updated(long id) {
+            if (!created.contains(id)) {
+                updated.add(id);
+            }
+        }
+
+        void deleted(long id) {
+            updated.remove(id);
+            if (!created.remove(id)) {
+                deleted.add(id);
+            }
+        }
+
+        TransactionChangedEvent toEvent(Long userId) {
+            return new TransactionChangedEvent(userId, List.copyOf(created), List.copyOf(updated), List.copyOf(deleted));
+        }
+    }
+
+    private static List<BatchOperation> validate(BatchRequest request) {
+        List<BatchOperation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("operations required");
+        }
+        if (operations.size() > BatchRequest.MAX_OPERATIONS) {
+            throw new IllegalArgumentException("At most " + BatchRequest.MAX_OPERATIONS + " operations per request");
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation op = operations.get(i);
+            if (op == null) {
+                throw invalid(i, "operation required");
+            }
+            String name = op.getOp() == null ? null : op.getOp().trim().toLowerCase(Locale.ROOT);
+            if (!OPS.contains(name)) {
+                throw invalid(i, "op must be one of create, update, delete, recategorize");
+            }
+            op.setOp(name);
+            TransactionPatch t = op.getTransaction();
+            switch (name) {
+                case "create" -> {
+                    if (t == null) {
+                        throw invalid(i, "transaction required");
+                    }
+                    if (t.getAmount() == null) {
+                        throw invalid(i, "Amount required");
+                    }
+                    if (t.getType() == null) {
+                        throw invalid(i, "Type required");
+                    }
+                    if (isBlank(t.getAccount())) {
+                        throw invalid(i, "Account required");
+                    }
+                }
+                case "update" -> {
+                    if (op.getId() == null) {
+                        throw invalid(i, "id required");
+                    }
+                    if (t == null) {
+                        throw invalid(i, "transaction required");
+                    }
+                    if (t.getAccount() != null && t.getAccount().isBlank()) {
+                        throw invalid(i, "Account must not be blank");
+                    }
+                }
+                case "delete" -> {
+                    if (op.getId() == null) {
+                        throw invalid(i, "id required");
+                    }
+                }
+                default -> {
+                    if (isBlank(op.getCategory())) {
+                        throw invalid(i, "category required");
+                    }
+                    if (op.getMatch() == null || op.getMatch().isEmpty()) {
+                        throw invalid(i, "match requires at least one field");
+                    }
+                }
+            }
+        }
+        return operations;
+    }
+
+    private static IllegalArgumentException invalid(int index, String message) {
+        return new IllegalArgumentException("operations[" + index + "]: " + message);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
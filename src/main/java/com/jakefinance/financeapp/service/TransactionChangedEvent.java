@@ -0,0 +1,21 @@
+package com.jakefinance.financeapp.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published whenever a user's transactions are added, changed or removed, with the ids
+ * affected. Listeners that keep derived state should use {@code @TransactionalEventListener}
+ * so they only react once the change has committed.
+ */
+public record TransactionChangedEvent(Long userId, Collection<Long> created, Collection<Long> updated,
+                                      Collection<Long> deleted) {
+
+    public static TransactionChangedEvent created(Long userId, Collection<Long> ids) {
+        return new TransactionChangedEvent(userId, ids, List.of(), List.of());
+    }
+
+    public static TransactionChangedEvent deleted(Long userId, Collection<Long> ids) {
+        return new TransactionChangedEvent(userId, List.of(), List.of(), ids);
+    }
+}
@@ -0,0 +1,109 @@
+package com.jakefinance.financeapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.ExportFormat;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a user's transactions straight from a database cursor to the response.
+ * Each row is detached once written, so memory use stays flat regardless of
+ * history size. CSV output uses the same columns and {@code M/d/yyyy} dates the
+ * importer accepts, so an export can be re-imported as-is.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String[] CSV_HEADER = {"title", "amount", "type", "category", "account", "date", "notes"};
+
+    private final TransactionRepository transactionRepository;
+    private final UserIdCache userIdCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    UserIdCache userIdCache,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.userIdCache = userIdCache;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String email, LocalDate from, LocalDate to, ExportFormat format, boolean gzip,
+                       OutputStream out) throws IOException {
+        Long userId = userIdCache.getUserId(email);
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        try (Stream<Transaction> rows = transactionRepository.streamForExport(userId, from, to)) {
+            Iterator<Transaction> it = rows.iterator();
+            switch (format) {
+                case CSV -> writeCsv(it, target);
+                case NDJSON -> writeJson(it, target, false);
+                case JSON -> writeJson(it, target, true);
+            }
+        }
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        out.flush();
+    }
+
+    private void writeCsv(Iterator<Transaction> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(CSV_HEADER);
+        while (rows.hasNext()) {
+            Transaction t = rows.next();
+            csv.writeRecord(
+                    t.getTitle(),
+                    t.getAmount().toString(),
+                    t.getType() != null ? t.getType().code() : null,
+                    t.getCategory(),
+                    t.getAccount(),
+                    t.getDate() != null ? t.getDate().format(TransactionImportService.CSV_DATE_FORMAT) : null,
+                    t.getNotes());
+            entityManager.detach(t);
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Iterator<Transaction> rows, OutputStream out, boolean array) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (array) {
+            generator.writeStartArray();
+        } else {
+            generator.setRootValueSeparator(null); // NDJSON: we write the '\n' ourselves
+        }
+        while (rows.hasNext()) {
+            Transaction t = rows.next();
+            generator.writeObject(t);
+            if (!array) {
+                generator.writeRaw('\n');
+            }
+            entityManager.detach(t);
+        }
+        if (array) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Computes import fingerprints: a SHA-256 of date, amount (in cents), account,
+ * title and notes, with text trimmed, whitespace-collapsed and lower-cased.
+ *
+ * Banks legitimately report identical rows (two equal coffees on the same day), so
+ * the k-th identical row seen by one fingerprinter gets a {@code -k} suffix. Re-uploading
+ * the same file then reproduces exactly the same fingerprints, while genuine repeats
+ * within a file still import. Not thread-safe; use one instance per file (or per user
+ * when backfilling).
+ */
+public final class TransactionFingerprinter {
+
+    private static final char SEPARATOR = '\u001f';
+
+    private final MessageDigest sha256;
+    private final Map<Long, Integer> occurrences = new HashMap<>();
+    private final StringBuilder key = new StringBuilder();
+
+    public TransactionFingerprinter() {
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String next(Transaction t) {
+        key.setLength(0);
+        if (t.getDate() != null) {
+            key.append(t.getDate());
+        }
+        key.append(SEPARATOR).append(t.getAmountMinor());
+        appendNormalized(t.getAccount());
+        appendNormalized(t.getTitle());
+        appendNormalized(t.getNotes());
+
+        byte[] digest = sha256.digest(key.toString().getBytes(StandardCharsets.UTF_8));
+        int occurrence = occurrences.merge(ByteBuffer.wrap(digest).getLong(), 1, Integer::sum);
+        String hex = HexFormat.of().formatHex(digest);
+        return occurrence == 1 ? hex : hex + "-" + occurrence;
+    }
+
+    /** Forgets occurrence counts, e.g. when moving on to the next user's rows. */
+    public void reset() {
+        occurrences.clear();
+    }
+
+    private void appendNormalized(String value) {
+        key.append(SEPARATOR);
+        if (value == null) {
+            return;
+        }
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && key.charAt(key.length() - 1) != SEPARATOR) {
+                key.append(' ');
+            }
+            pendingSpace = false;
+            key.append(Character.toLowerCase(c));
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.jakefinance.financeapp.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.ImportResult;
+import com.jakefinance.financeapp.model.Money;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionType;
+import com.jakefinance.financeapp.repository.TransactionBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams CSV / JSON uploads into the Transaction table. Rows are parsed one at a
+ * time and written in chunks of {@code import.batch-size}; each chunk is a JDBC
+ * batch committed in its own transaction together with its monthly_rollup deltas.
+ * Rows already imported earlier (same fingerprint) are skipped and counted; invalid
+ * rows are reported in the {@link ImportResult}.
+ *
+ * Metrics: {@code import.rows} (imported / skipped / rejected, counted as chunks are
+ * written and rows rejected, so the rate is live during a long import), {@code import.duration} per file and
+ * {@code import.throughput}, parsed rows per second for each completed file.
+ */
+@Service
+public class TransactionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+
+    public static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    private static final String[] COLUMNS = {"title", "amount", "type", "category", "account", "date", "notes"};
+    private static final int TITLE = 0, AMOUNT = 1, TYPE = 2, CATEGORY = 3, ACCOUNT = 4, DATE = 5, NOTES = 6;
+
+    private final TransactionBatchRepository batchRepository;
+    private final RollupService rollupService;
+    private final SyncService syncService;
+    private final DimensionService dimensionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+    private final MeterRegistry registry;
+    private final Counter importedRows;
+    private final Counter skippedRows;
+    private final Counter rejectedRows;
+    private final DistributionSummary throughput;
+
+    public TransactionImportService(TransactionBatchRepository batchRepository,
+                                    RollupService rollupService,
+                                    SyncService syncService,
+                                    DimensionService dimensionService,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher events,
+                                    @Value("${import.batch-size:1000}") int batchSize,
+                                    MeterRegistry registry) {
+        this.batchRepository = batchRepository;
+        this.rollupService = rollupService;
+        this.syncService = syncService;
+        this.dimensionService = dimensionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.batchSize = Math.max(1, batchSize);
+        this.registry = registry;
+        this.importedRows = registry.counter("import.rows", "outcome", "imported");
+        this.skippedRows = registry.counter("import.rows", "outcome", "skipped");
+        this.rejectedRows = registry.counter("import.rows", "outcome", "rejected");
+        this.throughput = DistributionSummary.builder("import.throughput")
+                .baseUnit("rows.per.second")
+                .register(registry);
+    }
+
+    /**
+     * Imports {@code in} as CSV if {@code filename} ends in .csv, otherwise as a JSON array,
+     * recording progress into {@code result} as it goes. Throws IOException only for
+     * problems that stop the whole file (unreadable header, malformed JSON structure);
+     * rows imported before that point stay committed.
+     */
+    public void importFile(String filename, InputStream in, Long userId, ImportResult result) throws IOException {
+        ChunkWriter writer = new ChunkWriter(userId, result);
+        boolean csv = isCsv(filename);
+        String outcome = "failed";
+        long start = System.nanoTime();
+
+        try {
+            parse(filename, in, writer);
+            writer.flush();
+            outcome = "completed";
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("import.duration")
+                    .tags("format", csv ? "csv" : "json", "outcome", outcome)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            if (outcome.equals("completed") && elapsed > 0) {
+                throughput.record(result.getParsed() * 1e9 / elapsed);
+            }
+        }
+
+        log.info("Import for user {}: {} imported, {} duplicates skipped, {} rejected in {}ms",
+                userId, result.getImported(), result.getSkipped(), result.getFailed(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** Receives the rows {@link #parse} reads: valid transactions, and rejected rows with the reason. */
+    public interface RowSink {
+        void add(long row, Transaction t);
+
+        void reject(long row, String message);
+    }
+
+    /**
+     * The parsing half of {@link #importFile}: reads {@code in} as CSV or JSON (by
+     * {@code filename}) into {@code sink}, without touching the database.
+     */
+    public void parse(String filename, InputStream in, RowSink sink) throws IOException {
+        if (isCsv(filename)) {
+            readCsv(in, sink);
+        } else {
+            readJson(in, sink);
+        }
+    }
+
+    private static boolean isCsv(String filename) {
+        return filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    private void readCsv(InputStream in, RowSink writer) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IOException("CSV file is empty");
+        }
+        int columnCount = header.size();
+        int[] index = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            index[i] = -1;
+            for (int j = 0; j < columnCount; j++) {
+                if (COLUMNS[i].equalsIgnoreCase(header.get(j).trim())) {
+                    index[i] = j;
+                    break;
+                }
+            }
+        }
+
+        StringBuilder scratch = new StringBuilder();
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            long row = csv.getRecordLine();
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (record.size() != columnCount) {
+                writer.reject(row, "Expected " + columnCount + " columns but found " + record.size());
+                continue;
+            }
+            try {
+                Transaction t = new Transaction();
+                t.setTitle(orDefault(field(record, index[TITLE]), "Untitled"));
+                t.setAmount(parseAmount(field(record, index[AMOUNT]), scratch));
+                t.setType(TransactionType.parse(field(record, index[TYPE])));
+                t.setCategory(orDefault(field(record, index[CATEGORY]), "Uncategorized"));
+                t.setAccount(field(record, index[ACCOUNT]));
+                if (index[DATE] >= 0) {
+                    String date = field(record, index[DATE]);
+                    t.setDate(date == null ? LocalDate.now() : LocalDate.parse(date, CSV_DATE_FORMAT));
+                }
+                t.setNotes(index[NOTES] >= 0 ? record.get(index[NOTES]).trim() : null);
+                writer.add(row, t);
+            } catch (DateTimeParseException e) {
+                writer.reject(row, "Invalid date '" + e.getParsedString() + "', expected M/d/yyyy");
+            } catch (IllegalArgumentException e) {
+                writer.reject(row, e.getMessage());
+            }
+        }
+    }
+
+    private void readJson(InputStream in, RowSink writer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of transactions");
+            }
+            long row = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                row++;
+                // Read the element as a tree first so a bad field doesn't desync the parser
+                JsonNode node = objectMapper.readTree(parser);
+                if (!node.hasNonNull("amount")) {
+                    writer.reject(row, "Amount required");
+                    continue;
+                }
+                try {
+                    writer.add(row, objectMapper.treeToValue(node, Transaction.class));
+                } catch (JsonProcessingException e) {
+                    writer.reject(row, "Invalid transaction: " + e.getOriginalMessage());
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Expected only transaction objects in the JSON array");
+            }
+        }
+    }
+
+    private static String field(List<String> record, int index) {
+        if (index < 0) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value == null ? fallback : value;
+    }
+
+    /** Parses amounts like "$1,234.50" or "-12"; keeps only digits, '.' and '-'. */
+    private static Money parseAmount(String value, StringBuilder scratch) {
+        if (value == null) {
+            throw new IllegalArgumentException("Amount required");
+        }
+        scratch.setLength(0);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.' || c == '-') {
+                scratch.append(c);
+            }
+        }
+        try {
+            return Money.parse(scratch);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid amount '" + value + "'");
+        }
+    }
+
+    /**
+     * Fingerprints validated rows and flushes them every {@code batchSize} rows; rows
+     * the user already has are skipped by the insert itself. If a chunk is rejected by
+     * the database, its rows are retried one by one so only the offending rows are reported.
+     */
+    private final class ChunkWriter implements RowSink {
+
+        private final Long userId;
+        private final ImportResult result;
+        private final TransactionFingerprinter fingerprinter = new TransactionFingerprinter();
+        private final List<Transaction> chunk = new ArrayList<>(batchSize);
+        private final List<Long> rows = new ArrayList<>(batchSize);
+
+        ChunkWriter(Long userId, ImportResult result) {
+            this.userId = userId;
+            this.result = result;
+        }
+
+        @Override
+        public void add(long row, Transaction t) {
+            result.addParsed();
+            if (t.getType() == null) {
+                addError(row, "Type required");
+                return;
+            }
+            if (t.getAccount() == null || t.getAccount().isBlank()) {
+                addError(row, "Account required");
+                return;
+            }
+            t.setFingerprint(fingerprinter.next(t));
+            chunk.add(t);
+            rows.add(row);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void reject(long row, String message) {
+            result.addParsed();
+            addError(row, message);
+        }
+
+        private void addError(long row, String message) {
+            result.addError(row, message);
+            rejectedRows.increment();
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                write(chunk);
+            } catch (DataAccessException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        write(List.of(chunk.get(i)));
+                    } catch (DataAccessException rowError) {
+                        addError(rows.get(i), "Could not save row: " + rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+            rows.clear();
+        }
+
+        private void write(List<Transaction> transactions) {
+            int inserted = transactionTemplate.execute(status -> {
+                long seq = syncService.nextSeq(userId);
+                dimensionService.resolve(userId, transactions);
+                Map<String, Long> ids = batchRepository.insertNew(userId, transactions, seq);
+                List<Transaction> added = ids.size() == transactions.size()
+                        ? transactions
+                        : transactions.stream().filter(t -> ids.containsKey(t.getFingerprint())).toList();
+                rollupService.recordAdded(userId, added);
+                if (!added.isEmpty()) {
+                    events.publishEvent(TransactionChangedEvent.created(userId, List.copyOf(ids.values())));
+                }
+                return added.size();
+            });
+            result.addImported(inserted);
+            result.addSkipped(transactions.size() - inserted);
+            importedRows.increment(inserted);
+            skippedRows.increment(transactions.size() - inserted);
+        }
+    }
+}
@@ -1,55 +1,182 @@
 package com.jakefinance.financeapp.service;
 
+import com.jakefinance.financeapp.model.AccountSummary;
+import com.jakefinance.financeapp.model.CategorySummary;
+import com.jakefinance.financeapp.model.MonthlySummary;
+import com.jakefinance.financeapp.model.Tombstone;
 import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionCursor;
+import com.jakefinance.financeapp.model.TransactionFilter;
+import com.jakefinance.financeapp.model.TransactionPage;
+import com.jakefinance.financeapp.model.TransactionTotals;
 import com.jakefinance.financeapp.model.User;
+import com.jakefinance.financeapp.repository.TransactionBatchRepository;
 import com.jakefinance.financeapp.repository.TransactionRepository;
-import com.jakefinance.financeapp.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+
+import static com.jakefinance.financeapp.repository.TransactionSpecifications.after;
+import static com.jakefinance.financeapp.repository.TransactionSpecifications.belongsTo;
+import static com.jakefinance.financeapp.repository.TransactionSpecifications.matching;
 
 @Service
 public class TransactionService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Keyset order; must match the (user_id, date, id) index on Transaction
+    private static final Sort PAGE_ORDER = Sort.by(Sort.Direction.DESC, "date", "id");
+
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final TransactionBatchRepository batchRepository;
+    private final UserIdCache userIdCache;
+    private final RollupService rollupService;
+    private final SyncService syncService;
+    private final DimensionService dimensionService;
+    private final ApplicationEventPublisher events;
 
     public TransactionService(TransactionRepository transactionRepository,
-                              UserRepository userRepository) {
+                              TransactionBatchRepository batchRepository,
+                              UserIdCache userIdCache,
+                              RollupService rollupService,
+                              SyncService syncService,
+                              DimensionService dimensionService,
+                              ApplicationEventPublisher events) {
         this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
+        this.batchRepository = batchRepository;
+        this.userIdCache = userIdCache;
+        this.rollupService = rollupService;
+        this.syncService = syncService;
+        this.dimensionService = dimensionService;
+        this.events = events;
     }
 
     public List<Transaction> getAllTransactions(String email) {
-        User user = getUserByEmail(email);
-        return transactionRepository.findByUser(user);
+        Long userId = userIdCache.getUserId(email);
+        return transactionRepository.findByUserId(userId);
+    }
+
+    /**
+     * Keyset-paginated listing, newest first. Fetches one extra row to learn whether
+     * another page exists, so no COUNT query is ever issued.
+     */
+    public TransactionPage getTransactionPage(String email, TransactionFilter filter, String cursor, int limit) {
+        Long userId = userIdCache.getUserId(email);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TransactionCursor position = (cursor == null || cursor.isBlank()) ? null : TransactionCursor.decode(cursor);
+
+        List<Transaction> rows = transactionRepository.findBy(
+                belongsTo(userId).and(matching(filter)).and(after(position)),
+                q -> q.sortBy(PAGE_ORDER).limit(pageSize + 1).all());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? TransactionCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new TransactionPage(items, nextCursor, hasMore);
+    }
+
+    // Summary rollups. Whole-month ranges are answered from monthly_rollup in
+    // O(months x categories); anything finer falls back to a GROUP BY over Transaction.
+
+    public TransactionTotals getTotals(String email, LocalDate from, LocalDate to, String account) {
+        Long userId = userIdCache.getUserId(email);
+        return rollupService.coversWholeMonths(from, to)
+                ? rollupService.getTotals(userId, from, to, blankToNull(account))
+                : transactionRepository.summarize(userId, from, to, blankToNull(account));
     }
 
+    public List<CategorySummary> getCategorySummary(String email, LocalDate from, LocalDate to, String account, boolean byMonth) {
+        Long userId = userIdCache.getUserId(email);
+        if (rollupService.coversWholeMonths(from, to)) {
+            return rollupService.getCategorySummary(userId, from, to, blankToNull(account), byMonth);
+        }
+        return byMonth
+                ? transactionRepository.summarizeByMonthAndCategory(userId, from, to, blankToNull(account))
+                : transactionRepository.summarizeByCategory(userId, from, to, blankToNull(account));
+    }
+
+    public List<MonthlySummary> getMonthlySummary(String email, LocalDate from, LocalDate to, String account) {
+        Long userId = userIdCache.getUserId(email);
+        return rollupService.coversWholeMonths(from, to)
+                ? rollupService.getMonthlySummary(userId, from, to, blankToNull(account))
+                : transactionRepository.summarizeByMonth(userId, from, to, blankToNull(account));
+    }
+
+    public List<AccountSummary> getAccountSummary(String email, LocalDate from, LocalDate to) {
+        Long userId = userIdCache.getUserId(email);
+        return rollupService.coversWholeMonths(from, to)
+                ? rollupService.getAccountSummary(userId, from, to)
+                : transactionRepository.summarizeByAccount(userId, from, to, null);
+    }
+
+    @Transactional
     public Transaction addTransaction(Transaction transaction, String email) {
-        User user = getUserByEmail(email);
+        User user = userIdCache.getUserReference(email);
         transaction.setUser(user);
-        return transactionRepository.save(transaction);
+        transaction.setChangeSeq(syncService.nextSeq(user.getId()));
+        dimensionService.resolve(user.getId(), List.of(transaction));
+        Transaction saved = transactionRepository.save(transaction);
+        rollupService.recordAdded(user.getId(), List.of(saved));
+        events.publishEvent(TransactionChangedEvent.created(user.getId(), List.of(saved.getId())));
+        return saved;
     }
 
-    public Optional<Transaction> getTransaction(Long id) {
-        return transactionRepository.findById(id);
+    /**
+     * Deletes the transaction if it belongs to the user; returns false if it doesn't exist
+     * or isn't theirs.
+     */
+    @Transactional
+    public boolean deleteTransaction(Long id, String email) {
+        return deleteTransactions(List.of(id), email) == 1;
     }
 
-    public void deleteTransaction(Long id) {
-        transactionRepository.deleteById(id);
+    /**
+     * Deletes those of {@code ids} the user owns in one statement; others are skipped.
+     * Returns the number deleted.
+     */
+    @Transactional
+    public int deleteTransactions(Collection<Long> ids, String email) {
+        Long userId = userIdCache.getUserId(email);
+        // Plain read first: the change sequence (and its row lock) is only taken when there
+        // is something to delete, and still before the DELETE locks any rows
+        List<Long> owned = transactionRepository.findOwnedIds(userId, ids);
+        if (owned.isEmpty()) {
+            return 0;
+        }
+        long seq = syncService.nextSeq(userId);
+        Map<Long, Transaction> deleted = batchRepository.deleteOwned(userId, owned);
+        if (!deleted.isEmpty()) {
+            syncService.recordDeleted(userId, Tombstone.TRANSACTION, deleted.keySet(), seq);
+            rollupService.recordRemoved(userId, deleted.values());
+            events.publishEvent(TransactionChangedEvent.deleted(userId, List.copyOf(deleted.keySet())));
+        }
+        return deleted.size();
     }
 
+    @Transactional
     public List<Transaction> saveAll(List<Transaction> transactions, String email) {
-        User user = getUserByEmail(email);
+        User user = userIdCache.getUserReference(email);
+        long seq = syncService.nextSeq(user.getId());
         for (Transaction t : transactions) {
             t.setUser(user);
+            t.setChangeSeq(seq);
         }
-        return transactionRepository.saveAll(transactions);
+        dimensionService.resolve(user.getId(), transactions);
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        rollupService.recordAdded(user.getId(), saved);
+        events.publishEvent(TransactionChangedEvent.created(user.getId(), saved.stream().map(Transaction::getId).toList()));
+        return saved;
     }
 
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found for email: " + email));
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value.trim();
     }
 }
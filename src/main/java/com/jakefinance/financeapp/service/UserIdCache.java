@@ -0,0 +1,61 @@
+package com.jakefinance.financeapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jakefinance.financeapp.model.User;
+import com.jakefinance.financeapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Resolves the authenticated email (the JWT subject) to a user id without a users
+ * table round trip on every request. Bounded and expiring, so a missed invalidation
+ * heals within {@code user-cache.ttl}. Unknown emails are not cached.
+ */
+@Service
+public class UserIdCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> ids;
+
+    public UserIdCache(UserRepository userRepository,
+                       @Value("${user-cache.max-size:10000}") long maxSize,
+                       @Value("${user-cache.ttl:10m}") Duration ttl,
+                       MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, ids, "user-ids");
+    }
+
+    public Long getUserId(String email) {
+        Long id = ids.getIfPresent(email);
+        if (id == null) {
+            id = userRepository.findIdByEmail(email)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found for email: " + email));
+            ids.put(email, id);
+        }
+        return id;
+    }
+
+    /**
+     * An uninitialized proxy for the user, for setting associations without loading the row.
+     */
+    public User getUserReference(String email) {
+        return userRepository.getReferenceById(getUserId(email));
+    }
+
+    /**
+     * Call whenever a user's email is created, changed or removed.
+     */
+    public void evict(String email) {
+        ids.invalidate(email);
+    }
+}
@@ -0,0 +1,98 @@
+-- The schema as Hibernate's ddl-auto=update left it, written so it also applies on top of
+-- a database that update created at any earlier version: tables and columns are only
+-- added when missing. V1 (LegacySchemaMigration) has already converted old column shapes.
+-- Indexes beyond primary keys and unique constraints are in V3.
+
+create table if not exists users (
+    id bigint generated by default as identity primary key,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    constraint uk_users_email unique (email)
+);
+
+create table if not exists account (
+    id bigint generated by default as identity primary key,
+    user_id bigint not null,
+    name varchar(255) not null,
+    constraint uk_account_user_name unique (user_id, name)
+);
+
+create table if not exists category (
+    id bigint generated by default as identity primary key,
+    user_id bigint not null,
+    name varchar(255) not null,
+    constraint uk_category_user_name unique (user_id, name)
+);
+
+create table if not exists transaction (
+    id bigint generated by default as identity primary key,
+    title varchar(255),
+    amount_minor bigint not null,
+    type varchar(255),
+    category_id bigint references category (id),
+    account_id bigint references account (id),
+    date date,
+    notes varchar(255),
+    user_id bigint references users (id)
+);
+alter table transaction add column if not exists fingerprint varchar(80);
+alter table transaction add column if not exists change_seq bigint;
+
+create table if not exists goals (
+    id bigint generated by default as identity primary key,
+    text varchar(500) not null,
+    steps text,
+    timeframe varchar(255),
+    created_at date not null,
+    completed boolean not null,
+    completed_at date,
+    user_id bigint references users (id)
+);
+alter table goals add column if not exists change_seq bigint;
+
+create table if not exists change_counter (
+    user_id bigint primary key,
+    seq bigint not null,
+    pruned_seq bigint not null
+);
+
+create table if not exists tombstone (
+    id bigint generated by default as identity primary key,
+    user_id bigint not null,
+    entity varchar(20) not null,
+    entity_id bigint not null,
+    change_seq bigint not null,
+    deleted_at timestamp(6) with time zone not null
+);
+
+create table if not exists monthly_rollup (
+    id bigint generated by default as identity primary key,
+    user_id bigint not null,
+    year_month integer not null,
+    account_id bigint not null,
+    category_id bigint not null,
+    type varchar(255) not null,
+    total_minor bigint not null,
+    count bigint not null,
+    constraint uk_monthly_rollup_key unique (user_id, year_month, account_id, category_id, type)
+);
+
+-- Constraints that update added after the fact: the import dedup key, and the dimension
+-- references of databases converted by V1 (which Hibernate named at random)
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'uk_transaction_user_fingerprint') then
+        alter table transaction add constraint uk_transaction_user_fingerprint unique (user_id, fingerprint);
+    end if;
+    if not exists (select 1 from pg_constraint where conrelid = 'transaction'::regclass
+                   and confrelid = 'account'::regclass) then
+        alter table transaction add constraint fk_transaction_account foreign key (account_id) references account (id);
+    end if;
+    if not exists (select 1 from pg_constraint where conrelid = 'transaction'::regclass
+                   and confrelid = 'category'::regclass) then
+        alter table transaction add constraint fk_transaction_category foreign key (category_id) references category (id);
+    end if;
+end
+$$;
@@ -0,0 +1,30 @@
+-- Indexes for the queries the application actually runs, every one led by user_id since
+-- no query crosses users. Databases that ddl-auto=update managed already have some of
+-- these under the same names (from the entities' former @Index annotations).
+
+-- Transaction listing: WHERE user_id = ? [AND filters] ORDER BY date DESC, id DESC LIMIT n,
+-- keyset-paginated, reads the index in order and stops after a page. The included columns
+-- also make the partial-month summaries (TransactionRepository.summarize*) and the rollup
+-- rebuild / drift check (MonthlyRollupRepository.EXPECTED) index-only scans over a date
+-- range instead of heap fetches of every row.
+drop index if exists idx_transaction_user_date_id;
+create index if not exists idx_transaction_user_date_covering
+    on transaction (user_id, date desc, id desc) include (type, amount_minor, account_id, category_id);
+
+-- Account / category filters on the listing and summaries, and bulk recategorization
+create index if not exists idx_transaction_user_account_id on transaction (user_id, account_id);
+create index if not exists idx_transaction_user_category_id on transaction (user_id, category_id);
+
+-- Delta sync: WHERE user_id = ? AND change_seq > ? ORDER BY change_seq, id
+create index if not exists idx_transaction_user_change_seq on transaction (user_id, change_seq);
+
+-- Goal list and delta sync: WHERE user_id = ? [AND change_seq > ?]
+create index if not exists idx_goals_user_change_seq on goals (user_id, change_seq);
+
+-- Open goals only (GoalRepository.findOpenByUserId, read on every recommendations miss);
+-- completed goals pile up over time and never need to be visited for it
+create index if not exists idx_goals_user_open on goals (user_id) where completed = false;
+
+-- Delta sync deletions and nightly pruning
+create index if not exists idx_tombstone_user_seq on tombstone (user_id, change_seq);
+create index if not exists idx_tombstone_deleted_at on tombstone (deleted_at);
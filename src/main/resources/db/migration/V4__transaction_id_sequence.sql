@@ -0,0 +1,21 @@
+-- Transaction ids come from transaction_seq in blocks of 50: each nextval value v
+-- reserves ids v-49 .. v, for Hibernate's pooled optimizer and for
+-- TransactionBatchRepository.allocateIds alike. With ids known before the INSERT,
+-- Hibernate can JDBC-batch inserts (IDENTITY forced one INSERT ... RETURNING per row).
+-- The first block starts right after the highest existing id.
+create sequence transaction_seq increment by 50;
+select setval('transaction_seq', (select coalesce(max(id), 0) + 50 from transaction), false);
+
+-- No column default any more: every writer takes ids from transaction_seq blocks, and a
+-- plain nextval() default would hand out ids inside someone else's block
+do $$
+begin
+    if exists (select 1 from information_schema.columns where table_schema = current_schema()
+               and table_name = 'transaction' and column_name = 'id' and is_identity = 'YES') then
+        alter table transaction alter column id drop identity;
+    else
+        alter table transaction alter column id drop default;
+        drop sequence if exists transaction_id_seq;
+    end if;
+end
+$$;
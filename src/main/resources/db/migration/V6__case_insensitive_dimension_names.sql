@@ -0,0 +1,48 @@
+-- Account and category names are matched ignoring case and surrounding blanks
+-- (DimensionRepository.idsFor), so " Checking", "checking" and "Checking" are one account.
+-- Databases converted or written before that can hold them as separate rows: each group is
+-- merged into its most used row, the moved transactions get a new change_seq so delta sync
+-- clients pick up the new name, and the affected users' monthly_rollup is rebuilt.
+create temporary table dimension_merge (user_id bigint, dimension text, old_id bigint, new_id bigint) on commit drop;
+
+do $$
+declare
+    dimension text;
+begin
+    foreach dimension in array array['account', 'category'] loop
+        execute format('insert into dimension_merge (user_id, dimension, old_id, new_id)'
+            || ' select user_id, %1$L, id, first_value(id) over (partition by user_id, lower(btrim(name)) order by uses desc, id)'
+            || ' from (select d.user_id, d.id, d.name, (select count(*) from transaction t where t.%1$I_id = d.id) as uses'
+            || ' from %1$I d) v', dimension);
+    end loop;
+end
+$$;
+delete from dimension_merge where old_id = new_id;
+
+update change_counter c set seq = c.seq + 1 where c.user_id in (select user_id from dimension_merge);
+
+update transaction t set account_id = m.new_id,
+    change_seq = coalesce((select c.seq from change_counter c where c.user_id = t.user_id), t.change_seq)
+from dimension_merge m where m.dimension = 'account' and t.account_id = m.old_id;
+update transaction t set category_id = m.new_id,
+    change_seq = coalesce((select c.seq from change_counter c where c.user_id = t.user_id), t.change_seq)
+from dimension_merge m where m.dimension = 'category' and t.category_id = m.old_id;
+
+delete from account where id in (select old_id from dimension_merge where dimension = 'account');
+delete from category where id in (select old_id from dimension_merge where dimension = 'category');
+update account set name = btrim(name) where name <> btrim(name);
+update category set name = btrim(name) where name <> btrim(name);
+
+-- Same aggregation as MonthlyRollupRepository.REBUILD
+delete from monthly_rollup where user_id in (select user_id from dimension_merge);
+insert into monthly_rollup (user_id, year_month, account_id, category_id, type, total_minor, count)
+select user_id,
+    coalesce(cast(extract(year from date) as int) * 100 + cast(extract(month from date) as int), 0),
+    coalesce(account_id, 0), coalesce(category_id, 0), coalesce(type, ''), sum(amount_minor), count(*)
+from transaction where user_id in (select user_id from dimension_merge) group by 1, 2, 3, 4, 5;
+
+-- Uniqueness follows the matching; the index also serves the name lookups and filters
+alter table account drop constraint if exists uk_account_user_name;
+create unique index uk_account_user_name on account (user_id, lower(name));
+alter table category drop constraint if exists uk_category_user_name;
+create unique index uk_category_user_name on category (user_id, lower(name));
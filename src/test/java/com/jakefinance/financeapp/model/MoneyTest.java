@@ -0,0 +1,66 @@
+package com.jakefinance.financeapp.model;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void roundsHalfUpToCents() {
+        assertThat(Money.parse("12.345").minor()).isEqualTo(1235);
+        assertThat(Money.parse("12.344").minor()).isEqualTo(1234);
+        assertThat(Money.parse("-12.345").minor()).isEqualTo(-1235);
+        assertThat(Money.parse("0.005").minor()).isEqualTo(1);
+        assertThat(Money.parse("0.0049").minor()).isEqualTo(0);
+        assertThat(Money.parse("1e2").minor()).isEqualTo(10000);
+        assertThat(Money.parse("1.5e-2").minor()).isEqualTo(2);
+    }
+
+    @Test
+    void acceptsTheLargestAmountThatFits() {
+        assertThat(Money.parse("92233720368547758.07").minor()).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> Money.parse("92233720368547758.08"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount out of range");
+        assertThatThrownBy(() -> Money.parse("100000000000000000"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount out of range");
+    }
+
+    @Test
+    @Timeout(1)
+    void rejectsHugeExponentsWithoutRescaling() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e30000000")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount out of range");
+        assertThatThrownBy(() -> Money.of(new BigDecimal("-9.99e2147483647")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount out of range");
+        assertThat(Money.of(new BigDecimal("1e-30000000"))).isEqualTo(Money.ZERO);
+        assertThat(Money.of(new BigDecimal("0e30000000"))).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    @Timeout(1)
+    void rejectsHugeExponentsInJson() {
+        assertThatThrownBy(() -> objectMapper.readValue("1e30000000", Money.class))
+                .isInstanceOf(JsonMappingException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("Amount out of range");
+    }
+
+    @Test
+    void writesPlainDecimals() throws Exception {
+        assertThat(objectMapper.writeValueAsString(Money.parse("12.5"))).isEqualTo("12.50");
+        assertThat(objectMapper.readValue("4.50", Money.class)).isEqualTo(Money.ofMinor(450));
+    }
+}
@@ -0,0 +1,54 @@
+package com.jakefinance.financeapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionCursorTest {
+
+    @Test
+    void roundTripsDatedPosition() {
+        TransactionCursor cursor = TransactionCursor.decode(new TransactionCursor(LocalDate.of(2024, 2, 29), 1234567L).encode());
+
+        assertThat(cursor.getDate()).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(cursor.getId()).isEqualTo(1234567L);
+    }
+
+    @Test
+    void roundTripsUndatedPosition() {
+        TransactionCursor cursor = TransactionCursor.decode(new TransactionCursor(null, 42L).encode());
+
+        assertThat(cursor.getDate()).isNull();
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void encodesAsUrlSafeToken() {
+        assertThat(new TransactionCursor(LocalDate.of(2024, 1, 15), Long.MAX_VALUE).encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "%%%", "2024-01-15|12", "", "-"})
+    void rejectsMalformedTokens(String token) {
+        assertThatThrownBy(() -> TransactionCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-01-15", "2024-13-01|12", "2024-01-15|", "2024-01-15|twelve", "yesterday|12"})
+    void rejectsMalformedContent(String raw) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> TransactionCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
@@ -0,0 +1,166 @@
+package com.jakefinance.financeapp.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the hot queries against a migrated database seeded with many users and fails
+ * if the planner, with its default settings and fresh statistics, picks a sequential scan
+ * or doesn't use the index meant for the query (V3__query_indexes.sql). Runs against a
+ * throwaway PostgreSQL container and is skipped where Docker isn't available.
+ *
+ * The statements are SQL equivalents of the repository queries they are named after, with
+ * the same predicates and ordering; update them alongside the repositories.
+ */
+// Plans don't involve the second-level cache, so it stays off
+@SpringBootTest(properties = "HIBERNATE_CACHE=false")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 1_000;
+    private static final int TRANSACTIONS_PER_USER = 300;
+
+    private static final String PAGE = "select t.* from transaction t where t.user_id = ?";
+    private static final String PAGE_ORDER = " order by t.date desc, t.id desc limit 21";
+    private static final String TOTALS = "select sum(case when t.type = 'income' then t.amount_minor else 0 end),"
+            + " sum(case when t.type = 'expense' then t.amount_minor else 0 end), count(t.id)"
+            + " from transaction t left join account a on a.id = t.account_id where t.user_id = ?"
+            + " and t.date >= ? and t.date <= ?";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private long userId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users (email, password, first_name)"
+                + " select 'plan' || g || '@example.com', '-', 'Plan' from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into account (user_id, name)"
+                + " select u.id, a from users u, unnest(array['Checking', 'Savings', 'Credit Card']) a");
+        jdbcTemplate.update("insert into category (user_id, name) select u.id, c from users u, unnest(array['Groceries',"
+                + " 'Dining', 'Transport', 'Rent', 'Utilities', 'Shopping', 'Health', 'Travel', 'Salary', 'Other']) c");
+        // Two years of history per user, ids in the same blocks the application would use
+        jdbcTemplate.update("with acc as (select user_id, array_agg(id order by id) ids from account group by user_id),"
+                + " cat as (select user_id, array_agg(id order by id) ids from category group by user_id)"
+                + " insert into transaction (id, title, amount_minor, type, category_id, account_id, date, user_id,"
+                + " change_seq, fingerprint)"
+                + " select nextval('transaction_seq'), 'Seeded ' || g, 100 + (random() * 50000)::int,"
+                + " case when g % 10 = 0 then 'income' else 'expense' end, cat.ids[1 + g % 10], acc.ids[1 + g % 3],"
+                + " current_date - (random() * 730)::int, u.id, g, md5(u.id || '-' || g)"
+                + " from users u join acc on acc.user_id = u.id join cat on cat.user_id = u.id,"
+                + " generate_series(1, ?) g", TRANSACTIONS_PER_USER);
+        jdbcTemplate.update("insert into goals (text, created_at, completed, user_id, change_seq)"
+                + " select 'Goal ' || g, current_date - g * 30, g % 4 <> 0, u.id, ? + g"
+                + " from users u, generate_series(1, 8) g", TRANSACTIONS_PER_USER);
+        jdbcTemplate.update("insert into tombstone (user_id, entity, entity_id, change_seq, deleted_at)"
+                + " select u.id, case when g % 5 = 0 then 'goal' else 'transaction' end, g, ? + g, now() - g * interval '1 day'"
+                + " from users u, generate_series(1, 30) g", TRANSACTIONS_PER_USER + 10);
+        jdbcTemplate.update(MonthlyRollupRepository.REBUILD.replace("where user_id = :userId ", ""));
+        jdbcTemplate.execute("vacuum analyze");
+        userId = jdbcTemplate.queryForObject("select id from users where email = ?", Long.class,
+                "plan" + USERS / 2 + "@example.com");
+    }
+
+    Stream<Arguments> hotQueries() {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(45);
+        int seq = TRANSACTIONS_PER_USER;
+        return Stream.of(
+                query("TransactionService.getPage", "idx_transaction_user_date_covering",
+                        PAGE + PAGE_ORDER, userId),
+                query("TransactionService.getPage (next page)", "idx_transaction_user_date_covering",
+                        PAGE + " and (t.date < ? or (t.date = ? and t.id < ?))" + PAGE_ORDER, userId, from, from, Long.MAX_VALUE),
+                query("TransactionService.getPage (account filter)", "uk_account_user_name",
+                        PAGE.replace(" where", " join account a on a.id = t.account_id where a.user_id = t.user_id and")
+                                + " and lower(a.name) = ?" + PAGE_ORDER, userId, "checking"),
+                query("TransactionService.getPage (category filter)", "uk_category_user_name",
+                        PAGE.replace(" where", " join category c on c.id = t.category_id where c.user_id = t.user_id and")
+                                + " and lower(c.name) = ?" + PAGE_ORDER, userId, "dining"),
+                query("TransactionRepository.summarize", "idx_transaction_user_date_covering",
+                        TOTALS, userId, from, to),
+                query("TransactionRepository.summarizeByMonth", "idx_transaction_user_date_covering",
+                        TOTALS.replace("select ", "select extract(year from t.date), extract(month from t.date), ")
+                                + " group by extract(year from t.date), extract(month from t.date) order by 1, 2", userId, from, to),
+                query("TransactionRepository.findChangedSince", "idx_transaction_user_change_seq",
+                        "select t.* from transaction t where t.user_id = ? and t.change_seq > ? order by t.change_seq, t.id",
+                        userId, (long) seq - 10),
+                query("GoalRepository.findByUserId", "idx_goals_user_change_seq",
+                        "select g.* from goals g where g.user_id = ?", userId),
+                query("GoalRepository.findOpenByUserId", "idx_goals_user_open",
+                        "select g.* from goals g where g.user_id = ? and g.completed = false", userId),
+                query("GoalRepository.findChangedSince", "idx_goals_user_change_seq",
+                        "select g.* from goals g where g.user_id = ? and g.change_seq > ? order by g.change_seq, g.id",
+                        userId, (long) seq + 6),
+                query("SyncRepository.deletedSince", "idx_tombstone_user_seq",
+                        "select entity_id from tombstone where user_id = ? and entity = 'transaction' and change_seq > ?",
+                        userId, (long) seq + 35),
+                query("MonthlyRollupRepository.summarize", "uk_monthly_rollup_key",
+                        "select sum(r.total_minor), sum(r.count) from monthly_rollup r"
+                                + " where r.user_id = ? and r.year_month >= ? and r.year_month <= ?", userId, 202401, 202512),
+                // Reads all of the user's rows; any of the user_id-led indexes serves it equally well
+                query("MonthlyRollupRepository.countDrift", null,
+                        MonthlyRollupRepository.EXPECTED.replace(":userId", "?"), userId),
+                query("DimensionRepository.idsFor", "uk_category_user_name",
+                        "select n, d.id from unnest(?::text[]) as u(n)"
+                                + " join category d on d.user_id = ? and lower(d.name) = lower(btrim(n))",
+                        new String[]{"Groceries", " dining"}, userId),
+                query("UserRepository.findByEmail", "uk_users_email",
+                        "select u.* from users u where u.email = ?", "plan1@example.com"));
+    }
+
+    private static Arguments query(String name, String index, String sql, Object... args) {
+        return Arguments.of(name, index, sql, args);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void usesItsIndex(String name, String index, String sql, Object[] args) throws Exception {
+        String json = jdbcTemplate.queryForObject("explain (format json) " + sql, String.class, args);
+        JsonNode plan = objectMapper.readTree(json).get(0).get("Plan");
+        List<String> seqScans = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        walk(plan, seqScans, indexes);
+
+        assertThat(seqScans).as("sequential scans in %s", plan.toPrettyString()).isEmpty();
+        if (index != null) {
+            assertThat(indexes).as("indexes used in %s", plan.toPrettyString()).contains(index);
+        }
+    }
+
+    private static void walk(JsonNode node, List<String> seqScans, List<String> indexes) {
+        if (node.path("Node Type").asText().equals("Seq Scan")) {
+            seqScans.add(node.path("Relation Name").asText());
+        } else if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            walk(child, seqScans, indexes);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.jakefinance.financeapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void splitsOnCommasOutsideQuotes() throws IOException {
+        assertThat(read("a,\"b,c\",d\n")).containsExactly(List.of("a", "b,c", "d"));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        assertThat(read("\"say \"\"hi\"\"\",\"\"\"\",\"\"\n"))
+                .containsExactly(List.of("say \"hi\"", "\"", ""));
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotedFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,\"one\r\ntwo\"\r\nb,\"three\nfour\"\nc,d"));
+        assertThat(csv.readRecord()).containsExactly("a", "one\r\ntwo");
+        assertThat(csv.getRecordLine()).isEqualTo(1);
+        assertThat(csv.readRecord()).containsExactly("b", "three\nfour");
+        assertThat(csv.getRecordLine()).isEqualTo(3);
+        assertThat(csv.readRecord()).containsExactly("c", "d");
+        assertThat(csv.getRecordLine()).isEqualTo(5);
+        assertThat(csv.readRecord()).isNull();
+    }
+
+    @Test
+    void acceptsCrlfLfAndCrLineEndings() throws IOException {
+        assertThat(read("a\r\nb\nc\rd")).containsExactly(List.of("a"), List.of("b"), List.of("c"), List.of("d"));
+    }
+
+    @Test
+    void keepsTrailingEmptyFields() throws IOException {
+        assertThat(read("a,,\n,\n\n")).containsExactly(List.of("a", "", ""), List.of("", ""), List.of(""));
+    }
+
+    @Test
+    void skipsByteOrderMarkOnlyAtStart() throws IOException {
+        assertThat(read("\uFEFFtitle,amount\n\uFEFFx,1\n"))
+                .containsExactly(List.of("title", "amount"), List.of("\uFEFFx", "1"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThatThrownBy(() -> read("a\n\"b,c\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unterminated quoted field starting on line 2");
+    }
+
+    @Test
+    void readsBackWhatCsvWriterWrites() throws IOException {
+        String[][] records = {
+                {"title", "notes", "empty"},
+                {"Coffee, large", "said \"thanks\"", ""},
+                {"multi\r\nline", "lf\nonly", "cr\ronly"},
+                {"plain", null, "trailing,"},
+        };
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        for (String[] record : records) {
+            writer.writeRecord(record);
+        }
+
+        List<List<String>> back = read(out.toString());
+        assertThat(back).hasSize(records.length);
+        for (int i = 0; i < records.length; i++) {
+            List<String> expected = new ArrayList<>();
+            for (String field : records[i]) {
+                expected.add(field == null ? "" : field);
+            }
+            assertThat(back.get(i)).isEqualTo(expected);
+        }
+    }
+
+    private static List<List<String>> read(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            records.add(List.copyOf(record));
+        }
+        return records;
+    }
+}
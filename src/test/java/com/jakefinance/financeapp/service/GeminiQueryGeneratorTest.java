@@ -0,0 +1,167 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.Money;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GeminiQueryGenerator against a local stub of the generateContent endpoint. The stub
+ * records which model each request went to and answers with {@link #status} after
+ * {@link #delayMs}, per model path.
+ */
+class GeminiQueryGeneratorTest {
+
+    private static final String FLASH_V1 = "/v1/models/gemini-2.5-flash:generateContent";
+    private static final String FLASH_V1BETA = "/v1beta/models/gemini-2.5-flash:generateContent";
+    private static final String ANSWER = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"meal prep containers, coupons\"}]}}]}";
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile Map<String, Integer> status = Map.of();
+    private volatile int defaultStatus = 200;
+    private volatile long delayMs;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/", this::answer);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.add(path);
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int code = status.getOrDefault(path, defaultStatus);
+        byte[] body = (code == 200 ? ANSWER : "{\"error\":{}}").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private GeminiQueryGenerator generator(Duration timeout, int failureThreshold, Duration openDuration) {
+        return new GeminiQueryGenerator("test-key", "http://127.0.0.1:" + server.getAddress().getPort() + "/",
+                timeout, 100, Duration.ofHours(1), failureThreshold, openDuration, new SimpleMeterRegistry());
+    }
+
+    private static Optional<String> generate(GeminiQueryGenerator generator, String category) {
+        return generator.generate(Map.of(category, Money.ofMinor(12_000)), List.of("Emergency fund"));
+    }
+
+    @Test
+    void fallsBackToTheNextModelAndPrefersTheOneThatAnswered() {
+        status = Map.of(FLASH_V1, 503);
+        GeminiQueryGenerator generator = generator(Duration.ofSeconds(5), 3, Duration.ofMinutes(1));
+
+        assertThat(generate(generator, "Groceries")).contains("meal prep containers, coupons");
+        assertThat(requests).containsExactly(FLASH_V1, FLASH_V1BETA);
+
+        requests.clear();
+        assertThat(generate(generator, "Dining")).isPresent();
+        assertThat(requests).containsExactly(FLASH_V1BETA);
+    }
+
+    @Test
+    void emptyAfterTheDeadlineWithoutTryingFurtherModels() throws InterruptedException {
+        delayMs = 1_000;
+        GeminiQueryGenerator generator = generator(Duration.ofMillis(200), 3, Duration.ofMinutes(1));
+
+        long start = System.nanoTime();
+        assertThat(generate(generator, "Groceries")).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(900));
+
+        // The timed-out request is not followed by calls to the other models
+        Thread.sleep(1_500);
+        assertThat(requests).containsExactly(FLASH_V1);
+    }
+
+    @Test
+    void breakerOpensAfterConsecutiveFailuresAndClosesAfterASuccessfulTrial() throws InterruptedException {
+        defaultStatus = 500;
+        GeminiQueryGenerator generator = generator(Duration.ofSeconds(5), 2, Duration.ofMillis(300));
+
+        assertThat(generate(generator, "Groceries")).isEmpty();
+        assertThat(generate(generator, "Dining")).isEmpty();
+        int callsWhileClosed = requests.size();
+
+        // Open: skipped without calling out
+        assertThat(generate(generator, "Transport")).isEmpty();
+        assertThat(requests).hasSize(callsWhileClosed);
+
+        // Half-open: the trial succeeds and closes the breaker
+        defaultStatus = 200;
+        Thread.sleep(350);
+        assertThat(generate(generator, "Transport")).isPresent();
+        assertThat(generate(generator, "Utilities")).isPresent();
+        assertThat(requests).hasSize(callsWhileClosed + 2);
+    }
+
+    @Test
+    void halfOpenLetsExactlyOneTrialThrough() throws Exception {
+        defaultStatus = 500;
+        GeminiQueryGenerator generator = generator(Duration.ofSeconds(5), 1, Duration.ofMillis(200));
+        assertThat(generate(generator, "Groceries")).isEmpty();
+        requests.clear();
+
+        defaultStatus = 200;
+        delayMs = 500;
+        Thread.sleep(250);
+        CompletableFuture<Optional<String>> trial = CompletableFuture.supplyAsync(() -> generate(generator, "Dining"));
+        Thread.sleep(100);
+
+        // While the trial is in flight everyone else gets the fallback straight away
+        long start = System.nanoTime();
+        assertThat(generate(generator, "Transport")).isEmpty();
+        assertThat(generate(generator, "Utilities")).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(300));
+
+        assertThat(trial.get()).isPresent();
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void cachesAnswersForTheSameCategoriesAndGoals() {
+        GeminiQueryGenerator generator = generator(Duration.ofSeconds(5), 3, Duration.ofMinutes(1));
+
+        assertThat(generate(generator, "Groceries")).isPresent();
+        assertThat(generate(generator, "Groceries")).isPresent();
+        assertThat(requests).hasSize(1);
+
+        // Only the ranking of categories is part of the key, not the amounts
+        assertThat(generator.generate(Map.of("Groceries", Money.ofMinor(99)), List.of("Emergency fund"))).isPresent();
+        assertThat(requests).hasSize(1);
+    }
+}
@@ -0,0 +1,134 @@
+package com.jakefinance.financeapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefinance.financeapp.model.ExportFormat;
+import com.jakefinance.financeapp.model.Money;
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionType;
+import com.jakefinance.financeapp.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The CSV half of {@link TransactionImportService#parse}: header mapping and the
+ * export round-trip. Parsing doesn't touch the database, so no collaborators are needed.
+ */
+class TransactionImportServiceTest {
+
+    private final TransactionImportService importService = new TransactionImportService(
+            null, null, null, null, null, new ObjectMapper(), null, 1000, new SimpleMeterRegistry());
+
+    @Test
+    void mapsHeadersIgnoringCaseOrderAndByteOrderMark() throws IOException {
+        Rows rows = parse("\uFEFF Date ,NOTES,Amount,Title,Type,Extra\r\n"
+                + "1/15/2024,,\"$1,234.50\",Rent,Expense,x\r\n");
+
+        assertThat(rows.rejected).isEmpty();
+        Transaction t = rows.added.get(0);
+        assertThat(t.getTitle()).isEqualTo("Rent");
+        assertThat(t.getAmount()).isEqualTo(Money.parse("1234.50"));
+        assertThat(t.getType()).isEqualTo(TransactionType.EXPENSE);
+        assertThat(t.getDate()).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(t.getNotes()).isEmpty();
+        assertThat(t.getAccount()).isNull();
+        assertThat(t.getCategory()).isEqualTo("Uncategorized");
+    }
+
+    @Test
+    void rejectsRowsWithTheWrongNumberOfColumnsByLine() throws IOException {
+        Rows rows = parse("title,amount\n\"two\nlines\",1\nshort\n\nok,2\n");
+
+        assertThat(rows.added).extracting(Transaction::getTitle).containsExactly("two\nlines", "ok");
+        assertThat(rows.rejected).containsExactly(Map.entry(4L, "Expected 2 columns but found 1"));
+    }
+
+    @Test
+    void reimportsItsOwnCsvExport() throws IOException {
+        List<Transaction> exported = List.of(
+                transaction("Coffee, large", "4.50", TransactionType.EXPENSE, "Food", "Checking",
+                        LocalDate.of(2024, 1, 15), "said \"thanks\""),
+                transaction("Salary", "-0.01", TransactionType.INCOME, "Pay", "Savings",
+                        LocalDate.of(2023, 12, 1), "line one\r\nline two"),
+                transaction("Plain", "1000000", TransactionType.EXPENSE, "Rent", null,
+                        LocalDate.of(2024, 2, 29), null));
+
+        Rows rows = parse(export(exported));
+
+        assertThat(rows.rejected).isEmpty();
+        assertThat(rows.added).hasSize(exported.size());
+        for (int i = 0; i < exported.size(); i++) {
+            Transaction expected = exported.get(i);
+            Transaction actual = rows.added.get(i);
+            assertThat(actual.getTitle()).isEqualTo(expected.getTitle());
+            assertThat(actual.getAmount()).isEqualTo(expected.getAmount());
+            assertThat(actual.getType()).isEqualTo(expected.getType());
+            assertThat(actual.getCategory()).isEqualTo(expected.getCategory());
+            assertThat(actual.getAccount()).isEqualTo(expected.getAccount());
+            assertThat(actual.getDate()).isEqualTo(expected.getDate());
+            assertThat(actual.getNotes()).isEqualTo(expected.getNotes() == null ? "" : expected.getNotes());
+        }
+    }
+
+    private static Transaction transaction(String title, String amount, TransactionType type, String category,
+                                           String account, LocalDate date, String notes) {
+        Transaction t = new Transaction();
+        t.setTitle(title);
+        t.setAmount(Money.parse(amount));
+        t.setType(type);
+        t.setCategory(category);
+        t.setAccount(account);
+        t.setDate(date);
+        t.setNotes(notes);
+        return t;
+    }
+
+    private static String export(List<Transaction> transactions) throws IOException {
+        TransactionRepository repository = mock(TransactionRepository.class);
+        when(repository.streamForExport(any(), any(), any())).thenReturn(transactions.stream());
+        UserIdCache userIdCache = mock(UserIdCache.class);
+        when(userIdCache.getUserId("user@example.com")).thenReturn(1L);
+        TransactionExportService exportService = new TransactionExportService(
+                repository, userIdCache, mock(EntityManager.class), new ObjectMapper());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export("user@example.com", null, null, ExportFormat.CSV, false, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Rows parse(String csv) throws IOException {
+        Rows rows = new Rows();
+        importService.parse("transactions.csv", new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), rows);
+        return rows;
+    }
+
+    private static final class Rows implements TransactionImportService.RowSink {
+        final List<Transaction> added = new ArrayList<>();
+        final Map<Long, String> rejected = new TreeMap<>();
+
+        @Override
+        public void add(long row, Transaction t) {
+            added.add(t);
+        }
+
+        @Override
+        public void reject(long row, String message) {
+            rejected.put(row, message);
+        }
+    }
+}
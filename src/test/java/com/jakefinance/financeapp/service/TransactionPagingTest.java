@@ -0,0 +1,164 @@
+package com.jakefinance.financeapp.service;
+
+import com.jakefinance.financeapp.model.Transaction;
+import com.jakefinance.financeapp.model.TransactionFilter;
+import com.jakefinance.financeapp.model.TransactionPage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset paging of {@link TransactionService#getTransactionPage} against PostgreSQL: walking
+ * every page returns each matching row once, in (date DESC, id DESC) order with undated rows
+ * first, also when many rows share a date and filters are combined. Runs against a throwaway
+ * PostgreSQL container and is skipped where Docker isn't available.
+ */
+@SpringBootTest(properties = "HIBERNATE_CACHE=false")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionPagingTest {
+
+    private static final String EMAIL = "paging@example.com";
+    private static final int ROWS = 200;
+    private static final LocalDate[] DATES = {null, LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1),
+            LocalDate.of(2024, 2, 15), LocalDate.of(2024, 3, 1)};
+    private static final String[] ACCOUNTS = {"Checking", "Savings"};
+    private static final String[] CATEGORIES = {"Food", "Rent", "Travel"};
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private record Row(long id, LocalDate date, String account, String category, String type, long amountMinor) {}
+
+    private final List<Row> rows = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users (email, password, first_name) values (?, '-', 'Paging')", EMAIL);
+        long userId = jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, EMAIL);
+        for (String account : ACCOUNTS) {
+            jdbcTemplate.update("insert into account (user_id, name) values (?, ?)", userId, account);
+        }
+        for (String category : CATEGORIES) {
+            jdbcTemplate.update("insert into category (user_id, name) values (?, ?)", userId, category);
+        }
+        // Few dates and ids inserted out of order, so most rows tie on date and only the id
+        // decides their order
+        Random random = new Random(42);
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1_000; id < 1_000 + ROWS; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+        for (long id : ids) {
+            Row row = new Row(id, DATES[random.nextInt(DATES.length)], ACCOUNTS[random.nextInt(ACCOUNTS.length)],
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], random.nextInt(4) == 0 ? "income" : "expense",
+                    100 + random.nextInt(10_000));
+            rows.add(row);
+            jdbcTemplate.update("insert into transaction (id, title, amount_minor, type, account_id, category_id, date,"
+                            + " user_id, change_seq) values (?, ?, ?, ?,"
+                            + " (select id from account where user_id = ? and name = ?),"
+                            + " (select id from category where user_id = ? and name = ?), ?, ?, 0)",
+                    row.id(), "Row " + row.id(), row.amountMinor(), row.type(), userId, row.account(),
+                    userId, row.category(), row.date() != null ? Date.valueOf(row.date()) : null, userId);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 7, ROWS, 500})
+    void walksAllRowsNewestFirstWithIdTieBreak(int limit) {
+        assertThat(walk(new TransactionFilter(), limit)).containsExactlyElementsOf(expected(row -> true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 100})
+    void walksCombinedFilters(int limit) {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setAccount(" checking");
+        filter.setCategory("FOOD");
+        filter.setType("expense");
+        filter.setFrom(LocalDate.of(2024, 2, 1));
+        filter.setTo(LocalDate.of(2024, 2, 29));
+        filter.setMinAmount(new BigDecimal("10.00"));
+
+        List<Long> expected = expected(row -> row.account().equals("Checking") && row.category().equals("Food")
+                && row.type().equals("expense") && row.date() != null
+                && !row.date().isBefore(filter.getFrom()) && !row.date().isAfter(filter.getTo())
+                && row.amountMinor() >= 1_000);
+        assertThat(expected).hasSizeGreaterThan(1);
+        assertThat(walk(filter, limit)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void rejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/transactions/page").param("cursor", "not-a-cursor")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(EMAIL)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    private List<Long> walk(TransactionFilter filter, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage page = transactionService.getTransactionPage(EMAIL, filter, cursor, limit);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(limit);
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            page.getItems().stream().map(Transaction::getId).forEach(ids::add);
+            assertThat(ids).as("a cursor that doesn't advance repeats rows").hasSizeLessThanOrEqualTo(ROWS);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    // Postgres puts NULLs first in DESC order, so undated rows lead
+    private List<Long> expected(Predicate<Row> filter) {
+        return rows.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Row::date, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+                        .thenComparing(Row::id)
+                        .reversed())
+                .map(Row::id)
+                .toList();
+    }
+}